@@ -1,17 +1,63 @@
 package db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AuthDB {
-    private static final String DB_URL = "jdbc:sqlite:data/auth.db";
+    // Overridable so tools and benchmarks can point at a scratch database
+    private static final String DB_URL = System.getProperty("auth.db.url", "jdbc:sqlite:data/auth.db");
 
-    public static Connection connect() throws Exception {return DriverManager.getConnection(DB_URL);}
+    private static final ConnectionPool POOL = new ConnectionPool(DB_URL, 4, 5000, List.of(
+            "PRAGMA journal_mode=WAL",
+            "PRAGMA busy_timeout=3000"
+    ));
 
-    public static void init() {
+    // Warmed from the users table on first use; see UsernameFilter
+    private static volatile UsernameFilter usernameFilter;
+    private static boolean initialized = false;
+    private static final AtomicLong EXISTS_LOOKUPS = new AtomicLong();
+    private static final AtomicLong EXISTS_FILTERED = new AtomicLong();
+    private static final AtomicLong EXISTS_FALSE_POSITIVES = new AtomicLong();
+
+    public static Connection connect() throws Exception {return POOL.borrow();}
+
+    public static ConnectionPool.PoolStats getPoolStats() {return POOL.getStats();}
+
+    public static void shutdown() {POOL.shutdown();}
+
+    // Filesystem path of the auth database, so it can be ATTACHed to an erpDB connection
+    public static String getDatabasePath() {return DB_URL.substring("jdbc:sqlite:".length());}
+
+    // ATTACHes auth.db to a borrowed erpDB connection as "auth"; pair every call with detachFrom()
+    public static void attachTo(Connection erpConn) throws SQLException {
+        try (PreparedStatement attach = erpConn.prepareStatement("ATTACH DATABASE ? AS auth")) {
+            attach.setString(1, getDatabasePath());
+            attach.execute();
+        }
+    }
+
+    // A connection that cannot be detached is evicted, so the pool never hands out one with auth attached
+    public static void detachFrom(Connection erpConn) {
+        try (Statement detach = erpConn.createStatement()) {
+            detach.execute("DETACH DATABASE auth");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ConnectionPool.evict(erpConn);
+        }
+    }
+
+    // Creates the users table the first time it is called in this process
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
         try (Connection conn = connect();
              Statement stmt = conn.createStatement()) {
             String sql = "CREATE TABLE IF NOT EXISTS users (" +
@@ -19,6 +65,7 @@ public class AuthDB {
                     "password_hash TEXT NOT NULL, " +
                     "role TEXT NOT NULL)";
             stmt.execute(sql);
+            initialized = true;
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -33,19 +80,78 @@ public class AuthDB {
             stmt.setString(3, role);
             stmt.executeUpdate();
         }
+        rememberUsernames(List.of(username));
     }
 
     public static boolean userExists(String username) {
+        EXISTS_LOOKUPS.incrementAndGet();
+        UsernameFilter filter = usernameFilter();
+        if (filter != null && !filter.mightContain(username)) {
+            EXISTS_FILTERED.incrementAndGet();
+            return false;
+        }
+        String sql = "SELECT 1 FROM users WHERE username=? LIMIT 1";
         try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-            String sql = "SELECT 1 FROM users WHERE username='" + username + "' LIMIT 1";
-            ResultSet rs = stmt.executeQuery(sql);
-            return rs.next();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean exists = rs.next();
+                if (!exists && filter != null) {
+                    EXISTS_FALSE_POSITIVES.incrementAndGet();
+                }
+                return exists;
+            }
         } catch (Exception e) {
             return false;
         }
     }
 
+    // For writers that insert into users without going through addUser (e.g. bulk provisioning).
+    // Shares the warm-up lock so a name added mid-warm-up is never lost.
+    public static synchronized void rememberUsernames(Collection<String> usernames) {
+        UsernameFilter filter = usernameFilter;
+        if (filter == null) {
+            return; // not warmed yet; the first lookup loads everything from the table
+        }
+        for (String username : usernames) {
+            filter.add(username);
+        }
+        if (filter.isSaturated()) {
+            usernameFilter = null; // rebuilt at the right size on the next lookup
+        }
+    }
+
+    public static String getUsernameFilterStats() {
+        UsernameFilter filter = usernameFilter;
+        return String.format("lookups=%d skippedByFilter=%d falsePositives=%d filterEntries=%s",
+                EXISTS_LOOKUPS.get(), EXISTS_FILTERED.get(), EXISTS_FALSE_POSITIVES.get(),
+                filter == null ? "cold" : String.valueOf(filter.size()));
+    }
+
+    private static UsernameFilter usernameFilter() {
+        UsernameFilter filter = usernameFilter;
+        if (filter != null) {
+            return filter;
+        }
+        synchronized (AuthDB.class) {
+            if (usernameFilter == null) {
+                List<String> usernames = new ArrayList<>();
+                try (Connection conn = connect();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT username FROM users")) {
+                    while (rs.next()) {
+                        usernames.add(rs.getString(1));
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return null; // no filter; every check goes to the database
+                }
+                usernameFilter = UsernameFilter.of(usernames);
+            }
+            return usernameFilter;
+        }
+    }
+
     public static boolean updatePassword(String username, String passwordHash) {
         String sql = "UPDATE users SET password_hash=? WHERE username=?";
         try (Connection conn = connect();
@@ -0,0 +1,36 @@
+package db;
+
+import model.ChangeEvent;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-process fan-out of erp.db writes. erpDB publishes after the write has committed, on the writing
+// thread; Swing subscribers hop to the event thread themselves. Subscribers that go away must unsubscribe.
+public class ChangeBus {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(ChangeEvent event);
+    }
+
+    private static final CopyOnWriteArrayList<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    public static void subscribe(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void unsubscribe(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public static void publish(ChangeEvent event) {
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                // A failing subscriber must not undo or hide the write from the others
+                e.printStackTrace();
+            }
+        }
+    }
+}
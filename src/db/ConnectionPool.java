@@ -0,0 +1,347 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded pool of long-lived SQLite connections.
+// Callers keep using try-with-resources: close() on a borrowed connection hands it back to the pool.
+// Each physical connection also keeps an LRU cache of prepared statements keyed by SQL text.
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final List<String> initPragmas;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalBorrowNanos = new AtomicLong();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, List<String> initPragmas) {
+        this(url, maxSize, borrowTimeoutMillis, initPragmas, 64);
+    }
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, List<String> initPragmas, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.initPragmas = List.copyOf(initPragmas);
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool for " + url + " is shut down");
+        }
+        long start = System.nanoTime();
+
+        if (!permits.tryAcquire()) {
+            waitCount.incrementAndGet();
+            try {
+                if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                            + " ms waiting for a connection to " + url);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = openPhysical();
+            }
+            active.incrementAndGet();
+            recordBorrow(System.nanoTime() - start);
+            return wrap(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Makes close() on a borrowed connection close it instead of returning it to the pool. For callers that
+    // left per-connection state they could not undo, such as an ATTACHed database or a failed ROLLBACK.
+    public static void evict(Connection conn) {
+        if (Proxy.isProxyClass(conn.getClass())
+                && Proxy.getInvocationHandler(conn) instanceof ConnectionPool.BorrowedConnection borrowed) {
+            borrowed.evicted = true;
+        }
+    }
+
+    public PoolStats getStats() {
+        long borrows = borrowCount.get();
+        return new PoolStats(
+                maxSize,
+                active.get(),
+                idle.size(),
+                borrows,
+                waitCount.get(),
+                borrows == 0 ? 0 : totalBorrowNanos.get() / borrows,
+                maxBorrowNanos.get(),
+                createdCount.get(),
+                discardedCount.get(),
+                statementHits.get(),
+                statementMisses.get(),
+                statementEvictions.get()
+        );
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled.physical)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : initPragmas) {
+                try {
+                    stmt.execute(pragma);
+                } catch (SQLException e) {
+                    // Pragma not supported by this build (e.g. WAL on some filesystems), keep the default
+                }
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        createdCount.incrementAndGet();
+        return new PooledConnection(conn, new StatementCache(
+                statementCacheSize, statementHits, statementMisses, statementEvictions));
+    }
+
+    private void release(PooledConnection pooled, boolean evicted) {
+        active.decrementAndGet();
+        Connection physical = pooled.physical;
+        if (evicted) {
+            discard(pooled);
+            permits.release();
+            return;
+        }
+        try {
+            // Never hand out a connection with a half-finished transaction
+            if (!physical.isClosed() && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+            permits.release();
+            return;
+        }
+
+        if (shutdown) {
+            discard(pooled);
+        } else {
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    private void discard(PooledConnection pooled) {
+        discardedCount.incrementAndGet();
+        pooled.closePhysical();
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.incrementAndGet();
+        totalBorrowNanos.addAndGet(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        BorrowedConnection handler = new BorrowedConnection(pooled);
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler
+        );
+        handler.proxy = proxy;
+        return proxy;
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+
+        PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        void closePhysical() {
+            statements.closeAll();
+            closeQuietly(physical);
+        }
+    }
+
+    // Handle given to callers; close() returns the physical connection instead of closing it.
+    private class BorrowedConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection physical;
+        private Connection proxy;
+        private boolean closed;
+        private volatile boolean evicted;
+
+        BorrowedConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.physical = pooled.physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled, evicted);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(method.getName()) && args != null && args.length == 1) {
+                return pooled.statements.prepare(physical, this.proxy, (String) args[0]);
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static class PoolStats {
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final long borrowCount;
+        private final long waitCount;
+        private final long avgBorrowNanos;
+        private final long maxBorrowNanos;
+        private final long createdCount;
+        private final long discardedCount;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        PoolStats(int maxSize, int active, int idle, long borrowCount, long waitCount,
+                  long avgBorrowNanos, long maxBorrowNanos, long createdCount, long discardedCount,
+                  long statementHits, long statementMisses, long statementEvictions) {
+            this.maxSize = maxSize;
+            this.active = active;
+            this.idle = idle;
+            this.borrowCount = borrowCount;
+            this.waitCount = waitCount;
+            this.avgBorrowNanos = avgBorrowNanos;
+            this.maxBorrowNanos = maxBorrowNanos;
+            this.createdCount = createdCount;
+            this.discardedCount = discardedCount;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getWaitCount() { return waitCount; }
+        public long getAvgBorrowNanos() { return avgBorrowNanos; }
+        public long getMaxBorrowNanos() { return maxBorrowNanos; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDiscardedCount() { return discardedCount; }
+        public long getStatementHits() { return statementHits; }
+        public long getStatementMisses() { return statementMisses; }
+        public long getStatementEvictions() { return statementEvictions; }
+
+        public double getStatementHitRate() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0.0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d max=%d borrows=%d waits=%d avgBorrow=%.3fms maxBorrow=%.3fms created=%d discarded=%d"
+                            + " stmtHits=%d stmtMisses=%d stmtEvictions=%d",
+                    active, idle, maxSize, borrowCount, waitCount,
+                    avgBorrowNanos / 1_000_000.0, maxBorrowNanos / 1_000_000.0, createdCount, discardedCount,
+                    statementHits, statementMisses, statementEvictions);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+// Bounded LRU read-through cache of immutable rows keyed by primary key. erpDB invalidates an id after
+// every write to it has committed. A load that overlaps an invalidation is returned but not kept, so a
+// row read before an admin edit can never be cached after it. Missing rows are not cached.
+public class EntityCache<V> {
+
+    private final String name;
+    private final int capacity;
+    private final LinkedHashMap<Integer, V> entries;
+    private long generation; // bumped by every invalidation; guarded by this
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    EntityCache(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                if (size() > EntityCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    V get(int id, IntFunction<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = entries.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        // Query outside the lock so a slow read doesn't hold up hits on other ids
+        V loaded = loader.apply(id);
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(id, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    synchronized void invalidate(int id) {
+        generation++;
+        entries.remove(id);
+        invalidations.incrementAndGet();
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, capacity, entries.size(), hits.get(), misses.get(), evictions.get(),
+                invalidations.get());
+    }
+
+    public static class CacheStats {
+        private final String name;
+        private final int capacity;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        CacheStats(String name, int capacity, int size, long hits, long misses, long evictions, long invalidations) {
+            this.name = name;
+            this.capacity = capacity;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() { return name; }
+        public int getCapacity() { return capacity; }
+        public int getSize() { return size; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size=%d/%d hits=%d misses=%d hitRate=%.1f%% evictions=%d invalidations=%d",
+                    name, size, capacity, hits, misses, getHitRate() * 100, evictions, invalidations);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Applies numbered schema migrations exactly once per database, recording each in schema_migrations.
+// Every migration runs in its own transaction, so a failed step leaves the previous version intact.
+public class SchemaMigrator {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        public Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+    }
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        this.migrations = sorted;
+    }
+
+    // Convenience for migrations that are just a list of DDL statements
+    public static Step statements(String... sql) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String s : sql) {
+                    stmt.execute(s);
+                }
+            }
+        };
+    }
+
+    // Brings the schema up to date and returns the resulting version
+    public int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_migrations (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        duration_ms REAL
+                    )
+                    """);
+        }
+
+        int current = currentVersion(conn);
+        for (Migration migration : migrations) {
+            if (migration.version <= current) {
+                continue;
+            }
+            apply(conn, migration);
+            current = migration.version;
+        }
+        return current;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            migration.step.apply(conn);
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, duration_ms) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.version);
+                stmt.setString(2, migration.description);
+                stmt.setDouble(3, millis);
+                stmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            System.err.println("Schema migration " + migration.version + " failed: " + e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over the usernames in auth.db. mightContain() == false is a definite miss, so
+// userExists can skip the database; a true answer still has to be confirmed with a query.
+// Deleted users stay in the filter until the next rebuild, which only costs a confirming query.
+class UsernameFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    UsernameFilter(int capacity) {
+        this.capacity = Math.max(capacity, 1024);
+        long m = (long) Math.ceil(-this.capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    static UsernameFilter of(Collection<String> usernames) {
+        // Leave headroom so registrations don't force an immediate rebuild
+        UsernameFilter filter = new UsernameFilter(usernames.size() * 2);
+        for (String username : usernames) {
+            filter.add(username);
+        }
+        return filter;
+    }
+
+    void add(String username) {
+        long[] h = hash(username);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h, i);
+            int word = bit >>> 6;
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+        size.incrementAndGet();
+    }
+
+    boolean mightContain(String username) {
+        long[] h = hash(username);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h, i);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Past capacity the false-positive rate climbs; the owner rebuilds from the table
+    boolean isSaturated() {
+        return size.get() > capacity;
+    }
+
+    long size() {
+        return size.get();
+    }
+
+    private int index(long[] h, int i) {
+        long combined = h[0] + i * h[1];
+        return (int) Math.floorMod(combined, (long) bitCount);
+    }
+
+    // FNV-1a over the UTF-8 bytes, then two differently seeded 64-bit finalizers for double hashing
+    private static long[] hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return new long[]{mix(h), mix(h ^ 0x9e3779b97f4a7c15L) | 1};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -3,13 +3,83 @@ package db;
 import model.*;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class erpDB {
 
-    private static final String DB_URL = "jdbc:sqlite:data/erp.db";
+    // Overridable so tools and benchmarks can point at a scratch database
+    private static final String DB_URL = System.getProperty("erp.db.url", "jdbc:sqlite:data/erp.db");
 
-    public erpDB() {
+    // settings key recorded once linkExistingLogins() has run against this database
+    private static final String LOGINS_LINKED_MARKER = "user_profiles.linked";
+
+    // erpDB keeps no per-instance state, so one instance serves the whole process
+    private static final erpDB INSTANCE = new erpDB();
+    private static volatile int schemaVersion = -1;
+
+    private erpDB() {
+    }
+
+    // Shared data-access instance. The schema is checked once per process, not per caller.
+    public static erpDB getInstance() {
+        if (schemaVersion < 0) {
+            bootstrap();
+        }
+        return INSTANCE;
+    }
+
+    // Brings erp.db up to the latest migration the first time it is called; later calls return immediately
+    public static synchronized int bootstrap() {
+        if (schemaVersion >= 0) {
+            return schemaVersion;
+        }
+        try (Connection conn = connect()) {
+            schemaVersion = MIGRATOR.migrate(conn);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not prepare the erp.db schema", e);
+        }
+        return schemaVersion;
+    }
+
+    // Schema history. Append new DDL as a new version; never edit one that has shipped.
+    private static final SchemaMigrator MIGRATOR = new SchemaMigrator(List.of(
+            new SchemaMigrator.Migration(1, "Base tables", erpDB::createBaseSchema),
+            new SchemaMigrator.Migration(2, "Indexes on enrollment, section and grade lookup columns",
+                    SchemaMigrator.statements(
+                            "CREATE INDEX IF NOT EXISTS idx_enrollments_student ON enrollments(student_id)",
+                            "CREATE INDEX IF NOT EXISTS idx_enrollments_section ON enrollments(section_id)",
+                            "CREATE INDEX IF NOT EXISTS idx_sections_course ON sections(course_id)",
+                            "CREATE INDEX IF NOT EXISTS idx_sections_instructor ON sections(instructor_id)",
+                            "CREATE INDEX IF NOT EXISTS idx_grades_enroll ON grades(enroll_id)"
+                    )),
+            new SchemaMigrator.Migration(3, "Unique (student_id, section_id) on enrollments",
+                    SchemaMigrator.statements(
+                            // Keep one copy of any duplicate enrollment: the oldest graded one, else the oldest
+                            """
+                            CREATE TEMP TABLE superseded_enrollments AS
+                            SELECT e.id FROM enrollments e
+                            WHERE e.id <> (
+                                SELECT k.id FROM enrollments k
+                                WHERE k.student_id = e.student_id AND k.section_id = e.section_id
+                                ORDER BY k.grade_id IS NULL, k.id
+                                LIMIT 1
+                            )
+                            """,
+                            "DELETE FROM grades WHERE enroll_id IN (SELECT id FROM temp.superseded_enrollments)",
+                            "DELETE FROM enrollments WHERE id IN (SELECT id FROM temp.superseded_enrollments)",
+                            "DROP TABLE temp.superseded_enrollments",
+                            "CREATE UNIQUE INDEX IF NOT EXISTS idx_enrollments_student_section ON enrollments(student_id, section_id)"
+                    )),
+            new SchemaMigrator.Migration(4, "Login username to student/instructor profile mapping",
+                    erpDB::createUserProfiles),
+            new SchemaMigrator.Migration(5, "seats_taken counter on sections kept by enrollment triggers",
+                    erpDB::createSeatCounters)
+    ));
+
+    private static void createBaseSchema(Connection conn) throws SQLException {
         String students = """
                 CREATE TABLE IF NOT EXISTS students (
                     student_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -78,12 +148,10 @@ public class erpDB {
                 );
                 """;
 
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-
-            // Migrate first if needed (before creating new tables)
-            migrateSectionsTable();
+        // Databases created before the schema was versioned may still carry the old sections layout
+        migrateSectionsTable(conn);
 
+        try (Statement stmt = conn.createStatement()) {
             stmt.execute(students);
             stmt.execute(instructors);
             stmt.execute(courses);
@@ -92,38 +160,298 @@ public class erpDB {
             stmt.execute(grades);
             stmt.execute(settings);
 
+            if (!hasColumn(conn, "sections", "room")) {
+                stmt.execute("ALTER TABLE sections ADD COLUMN room TEXT");
+            }
+        }
+    }
+
+    // Enable WAL for better concurrency and a busy timeout to handle locks gracefully;
+    // applied once per physical connection instead of on every query.
+    private static final ConnectionPool POOL = new ConnectionPool(DB_URL, 8, 5000, List.of(
+            "PRAGMA journal_mode=WAL",
+            "PRAGMA busy_timeout=3000"
+    ));
+
+    public static Connection connect() throws SQLException {
+        return POOL.borrow();
+    }
+
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    // Closes the pooled connections; the last close checkpoints the WAL and removes the -wal/-shm files
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    // Reference rows the dashboards look up by id over and over; sized by erp.cache.entities
+    private static final int ENTITY_CACHE_SIZE = Integer.getInteger("erp.cache.entities", 512);
+    private static final EntityCache<Course> COURSES = new EntityCache<>("courses", ENTITY_CACHE_SIZE);
+    private static final EntityCache<Instructor> INSTRUCTORS = new EntityCache<>("instructors", ENTITY_CACHE_SIZE);
+    private static final EntityCache<Section> SECTIONS = new EntityCache<>("sections", ENTITY_CACHE_SIZE);
+
+    public static List<EntityCache.CacheStats> getEntityCacheStats() {
+        return List.of(COURSES.getStats(), INSTRUCTORS.getStats(), SECTIONS.getStats());
+    }
+
+    // Writes announce themselves on the ChangeBus once committed; for cached entities only after the
+    // invalidation, so a subscriber reading the row back never gets the old copy
+    private static void publish(ChangeEvent.Entity entity, ChangeEvent.Operation operation, int id, int changedRows) {
+        if (changedRows > 0) {
+            ChangeBus.publish(new ChangeEvent(entity, operation, id));
+        }
+    }
+
+    private static void publishCreated(PreparedStatement stmt, ChangeEvent.Entity entity) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                ChangeBus.publish(new ChangeEvent(entity, ChangeEvent.Operation.CREATED, keys.getInt(1)));
+            }
+        }
+    }
+
+    // SQLite result codes that mean another writer holds the lock
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final int SQLITE_CONSTRAINT = 19;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final AtomicLong BUSY_RETRIES = new AtomicLong();
+
+    public static long getBusyRetryCount() {
+        return BUSY_RETRIES.get();
+    }
+
+    private static boolean isBusy(SQLException e) {
+        int code = e.getErrorCode() & 0xFF; // extended codes keep the primary code in the low byte
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    // sections.seats_taken mirrors COUNT(*) of the section's enrollments. Triggers keep it in the same
+    // transaction as every insert, delete or move of an enrollment, whichever code path issues it.
+    private static void createSeatCounters(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (!hasColumn(conn, "sections", "seats_taken")) {
+                stmt.execute("ALTER TABLE sections ADD COLUMN seats_taken INTEGER NOT NULL DEFAULT 0");
+            }
+            stmt.execute("""
+                    UPDATE sections SET seats_taken =
+                        (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = sections.section_id)
+                    """);
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_enrollments_seat_insert AFTER INSERT ON enrollments
+                    BEGIN
+                        UPDATE sections SET seats_taken = seats_taken + 1 WHERE section_id = NEW.section_id;
+                    END
+                    """);
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_enrollments_seat_delete AFTER DELETE ON enrollments
+                    BEGIN
+                        UPDATE sections SET seats_taken = seats_taken - 1 WHERE section_id = OLD.section_id;
+                    END
+                    """);
+            stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_enrollments_seat_move AFTER UPDATE OF section_id ON enrollments
+                    WHEN OLD.section_id IS NOT NEW.section_id
+                    BEGIN
+                        UPDATE sections SET seats_taken = seats_taken - 1 WHERE section_id = OLD.section_id;
+                        UPDATE sections SET seats_taken = seats_taken + 1 WHERE section_id = NEW.section_id;
+                    END
+                    """);
+        }
+    }
+
+    // Maps AuthDB usernames to profile ids so login never has to scan the profile tables.
+    // DDL only; logins that predate the table are linked by linkExistingLogins().
+    private static void createUserProfiles(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS user_profiles (
+                        username TEXT PRIMARY KEY COLLATE NOCASE,
+                        role TEXT NOT NULL,
+                        profile_id INTEGER NOT NULL
+                    )
+                    """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_profiles_profile ON user_profiles(role, profile_id)");
+        }
+    }
+
+    // Links the logins in AuthDB's database to their profiles in this one, using the matching rules login
+    // relied on before user_profiles existed: exact email, then email prefix or name. Runs once per erp.db;
+    // a settings marker records that it has, and later logins are linked when they are created.
+    public static void linkExistingLogins() {
+        try (Connection conn = connect()) {
+            AuthDB.attachTo(conn);
+            try (Statement tx = conn.createStatement()) {
+                tx.execute("BEGIN IMMEDIATE");
+                try {
+                    boolean linked;
+                    try (PreparedStatement marker = conn.prepareStatement(
+                            "SELECT 1 FROM main.settings WHERE key = ?")) {
+                        marker.setString(1, LOGINS_LINKED_MARKER);
+                        try (ResultSet rs = marker.executeQuery()) {
+                            linked = rs.next();
+                        }
+                    }
+                    if (!linked) {
+                        linkExistingLogins(conn, "student",
+                                "SELECT student_id, name, email FROM main.students ORDER BY name");
+                        linkExistingLogins(conn, "instructor",
+                                "SELECT instructor_id, name, email FROM main.instructors ORDER BY name");
+                        try (PreparedStatement marker = conn.prepareStatement(
+                                "INSERT OR REPLACE INTO main.settings (key, value) VALUES (?, '1')")) {
+                            marker.setString(1, LOGINS_LINKED_MARKER);
+                            marker.executeUpdate();
+                        }
+                    }
+                    tx.execute("COMMIT");
+                } catch (SQLException e) {
+                    try {
+                        tx.execute("ROLLBACK");
+                    } catch (SQLException rollbackFailed) {
+                        ConnectionPool.evict(conn);
+                    }
+                    throw e;
+                }
+            } finally {
+                AuthDB.detachFrom(conn);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    private static Connection connect() throws SQLException {
-        Connection conn = DriverManager.getConnection(DB_URL);
-        // Configure SQLite to reduce locking issues
-        conn.setAutoCommit(true);
-        try (Statement stmt = conn.createStatement()) {
-            // Enable WAL mode for better concurrency (if supported)
-            try {
-                stmt.execute("PRAGMA journal_mode=WAL");
-            } catch (SQLException e) {
-                // WAL not supported, use default
+    private static void linkExistingLogins(Connection conn, String role, String profileSql) throws SQLException {
+        List<String> usernames = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT username FROM auth.users WHERE role = ?")) {
+            stmt.setString(1, role);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    usernames.add(rs.getString(1));
+                }
             }
-            // Set busy timeout to handle locks gracefully
-            stmt.execute("PRAGMA busy_timeout=3000");
         }
-        return conn;
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        // One pass over the profiles; the first profile to claim a key wins, exact emails before prefixes and names
+        Map<String, Integer> byEmail = new HashMap<>();
+        Map<String, Integer> byPrefixOrName = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(profileSql)) {
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String name = rs.getString(2) != null ? rs.getString(2).toLowerCase() : "";
+                String email = rs.getString(3) != null ? rs.getString(3).toLowerCase() : "";
+                byEmail.putIfAbsent(email, id);
+                int at = email.indexOf('@');
+                if (at > 0) {
+                    byPrefixOrName.putIfAbsent(email.substring(0, at), id);
+                }
+                byPrefixOrName.putIfAbsent(name, id);
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT OR IGNORE INTO main.user_profiles (username, role, profile_id) VALUES (?, ?, ?)")) {
+            for (String username : usernames) {
+                String key = username.toLowerCase();
+                Integer id = byEmail.containsKey(key) ? byEmail.get(key) : byPrefixOrName.get(key);
+                if (id != null) {
+                    stmt.setString(1, username);
+                    stmt.setString(2, role);
+                    stmt.setInt(3, id);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    public boolean linkUserProfile(String username, String role, int profileId) {
+        String sql = "INSERT OR REPLACE INTO user_profiles (username, role, profile_id) VALUES (?, ?, ?)";
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            stmt.setString(2, role);
+            stmt.setInt(3, profileId);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public Student getStudentForUsername(String username) {
+        String sql = """
+                SELECT s.student_id, s.name, s.email, s.program
+                FROM user_profiles p
+                INNER JOIN students s ON s.student_id = p.profile_id
+                WHERE p.username = ? AND p.role = 'student'
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Student(
+                            rs.getInt("student_id"),
+                            rs.getString("name"),
+                            rs.getString("email"),
+                            rs.getString("program")
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    public Instructor getInstructorForUsername(String username) {
+        String sql = """
+                SELECT i.instructor_id, i.name, i.email, i.department
+                FROM user_profiles p
+                INNER JOIN instructors i ON i.instructor_id = p.profile_id
+                WHERE p.username = ? AND p.role = 'instructor'
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Instructor(
+                            rs.getInt("instructor_id"),
+                            rs.getString("name"),
+                            rs.getString("email"),
+                            rs.getString("department")
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
     }
 
     // Student methods
     public boolean addStudent(String name, String email, String program) {
         String sql = "INSERT INTO students (name, email, program) VALUES (?, ?, ?)";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, name);
             stmt.setString(2, email);
             stmt.setString(3, program);
             stmt.executeUpdate();
+            publishCreated(stmt, ChangeEvent.Entity.STUDENT);
             return true;
 
         } catch (Exception e) {
@@ -187,7 +515,7 @@ public class erpDB {
             stmt.setString(2, email);
             stmt.setString(3, program);
             stmt.setInt(4, id);
-            stmt.executeUpdate();
+            publish(ChangeEvent.Entity.STUDENT, ChangeEvent.Operation.UPDATED, id, stmt.executeUpdate());
             return true;
 
         } catch (Exception e) {
@@ -199,10 +527,15 @@ public class erpDB {
     public boolean deleteStudent(int id) {
         String sql = "DELETE FROM students WHERE student_id=?";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement unlink = conn.prepareStatement(
+                     "DELETE FROM user_profiles WHERE role = 'student' AND profile_id = ?")) {
 
             stmt.setInt(1, id);
-            stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            unlink.setInt(1, id);
+            unlink.executeUpdate();
+            publish(ChangeEvent.Entity.STUDENT, ChangeEvent.Operation.DELETED, id, deleted);
             return true;
 
         } catch (Exception e) {
@@ -215,12 +548,13 @@ public class erpDB {
     public boolean addInstructor(String name, String email, String department) {
         String sql = "INSERT INTO instructors (name, email, department) VALUES (?, ?, ?)";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, name);
             stmt.setString(2, email);
             stmt.setString(3, department);
             stmt.executeUpdate();
+            publishCreated(stmt, ChangeEvent.Entity.INSTRUCTOR);
             return true;
 
         } catch (Exception e) {
@@ -230,6 +564,10 @@ public class erpDB {
     }
 
     public Instructor getInstructorById(int id) {
+        return INSTRUCTORS.get(id, this::loadInstructor);
+    }
+
+    private Instructor loadInstructor(int id) {
         String sql = "SELECT * FROM instructors WHERE instructor_id = ?";
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -277,6 +615,7 @@ public class erpDB {
 
     public boolean updateInstructor(int id, String name, String email, String department) {
         String sql = "UPDATE instructors SET name=?, email=?, department=? WHERE instructor_id=?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -284,40 +623,52 @@ public class erpDB {
             stmt.setString(2, email);
             stmt.setString(3, department);
             stmt.setInt(4, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
 
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            INSTRUCTORS.invalidate(id);
         }
+        publish(ChangeEvent.Entity.INSTRUCTOR, ChangeEvent.Operation.UPDATED, id, changed);
+        return true;
     }
 
     public boolean deleteInstructor(int id) {
         String sql = "DELETE FROM instructors WHERE instructor_id=?";
+        int changed;
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement unlink = conn.prepareStatement(
+                     "DELETE FROM user_profiles WHERE role = 'instructor' AND profile_id = ?")) {
 
             stmt.setInt(1, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
+            unlink.setInt(1, id);
+            unlink.executeUpdate();
 
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            INSTRUCTORS.invalidate(id);
         }
+        publish(ChangeEvent.Entity.INSTRUCTOR, ChangeEvent.Operation.DELETED, id, changed);
+        return true;
     }
 
     // Course methods
     public boolean addCourse(String code, String title, int credits) {
         String sql = "INSERT INTO courses (code, title, credits) VALUES (?, ?, ?)";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, code);
             stmt.setString(2, title);
             stmt.setInt(3, credits);
             stmt.executeUpdate();
+            publishCreated(stmt, ChangeEvent.Entity.COURSE);
             return true;
 
         } catch (Exception e) {
@@ -327,6 +678,10 @@ public class erpDB {
     }
 
     public Course getCourseById(int id) {
+        return COURSES.get(id, this::loadCourse);
+    }
+
+    private Course loadCourse(int id) {
         String sql = "SELECT * FROM courses WHERE course_id = ?";
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -374,6 +729,7 @@ public class erpDB {
 
     public boolean updateCourse(int id, String code, String title, int credits) {
         String sql = "UPDATE courses SET code=?, title=?, credits=? WHERE course_id=?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -381,35 +737,42 @@ public class erpDB {
             stmt.setString(2, title);
             stmt.setInt(3, credits);
             stmt.setInt(4, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
 
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            COURSES.invalidate(id);
         }
+        publish(ChangeEvent.Entity.COURSE, ChangeEvent.Operation.UPDATED, id, changed);
+        return true;
     }
 
     public boolean deleteCourse(int id) {
         String sql = "DELETE FROM courses WHERE course_id=?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
 
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            COURSES.invalidate(id);
         }
+        publish(ChangeEvent.Entity.COURSE, ChangeEvent.Operation.DELETED, id, changed);
+        return true;
     }
 
     // Section methods
     public boolean addSection(int courseId, Integer instructorId, String name, int capacity, String room, String timetable) {
         String sql = "INSERT INTO sections (course_id, instructor_id, name, capacity, room, timetable) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, courseId);
             if (instructorId == null) {
@@ -422,6 +785,7 @@ public class erpDB {
             stmt.setString(5, room);
             stmt.setString(6, timetable);
             stmt.executeUpdate();
+            publishCreated(stmt, ChangeEvent.Entity.SECTION);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -430,6 +794,10 @@ public class erpDB {
     }
 
     public Section getSectionById(int id) {
+        return SECTIONS.get(id, this::loadSection);
+    }
+
+    private Section loadSection(int id) {
         String sql = "SELECT * FROM sections WHERE section_id = ?";
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -482,6 +850,7 @@ public class erpDB {
 
     public boolean updateSection(int id, int courseId, Integer instructorId, String name, int capacity, String room, String timetable) {
         String sql = "UPDATE sections SET course_id=?, instructor_id=?, name=?, capacity=?, room=?, timetable=? WHERE section_id=?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -496,16 +865,20 @@ public class erpDB {
             stmt.setString(5, room);
             stmt.setString(6, timetable);
             stmt.setInt(7, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            SECTIONS.invalidate(id);
         }
+        publish(ChangeEvent.Entity.SECTION, ChangeEvent.Operation.UPDATED, id, changed);
+        return true;
     }
 
     public boolean assignInstructorToSection(int sectionId, Integer instructorId) {
         String sql = "UPDATE sections SET instructor_id=? WHERE section_id=?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             if (instructorId == null) {
@@ -514,26 +887,33 @@ public class erpDB {
                 stmt.setInt(1, instructorId);
             }
             stmt.setInt(2, sectionId);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            SECTIONS.invalidate(sectionId);
         }
+        publish(ChangeEvent.Entity.SECTION, ChangeEvent.Operation.UPDATED, sectionId, changed);
+        return true;
     }
 
     public boolean deleteSection(int id) {
         String sql = "DELETE FROM sections WHERE section_id = ?";
+        int changed;
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            stmt.executeUpdate();
-            return true;
+            changed = stmt.executeUpdate();
         } catch (Exception e) {
             e.printStackTrace();
             return false;
+        } finally {
+            SECTIONS.invalidate(id);
         }
+        publish(ChangeEvent.Entity.SECTION, ChangeEvent.Operation.DELETED, id, changed);
+        return true;
     }
 
     public int getSectionCountForCourse(int courseId) {
@@ -588,9 +968,111 @@ public class erpDB {
         }
     }
 
+    // Catalog: one row per section with course, instructor and its seats_taken counter in a single query
+    public List<CatalogRow> getCatalogRows() {
+        List<CatalogRow> list = new ArrayList<>();
+        String sql = """
+                SELECT s.section_id, s.course_id, s.instructor_id,
+                       c.code, c.title, c.credits,
+                       s.name AS section_name, s.capacity, s.room, s.timetable,
+                       i.name AS instructor_name,
+                       s.seats_taken AS enrolled
+                FROM sections s
+                INNER JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.instructor_id = s.instructor_id
+                ORDER BY c.code, s.name
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(readCatalogRow(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    // One catalog row, or null once the section or its course is gone
+    public CatalogRow getCatalogRow(int sectionId) {
+        String sql = """
+                SELECT s.section_id, s.course_id, s.instructor_id,
+                       c.code, c.title, c.credits,
+                       s.name AS section_name, s.capacity, s.room, s.timetable,
+                       i.name AS instructor_name,
+                       s.seats_taken AS enrolled
+                FROM sections s
+                INNER JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.instructor_id = s.instructor_id
+                WHERE s.section_id = ?
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return readCatalogRow(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    // Same shape as the catalog, limited to one instructor; course columns are null for orphaned sections
+    public List<CatalogRow> getCatalogRowsForInstructor(int instructorId) {
+        List<CatalogRow> list = new ArrayList<>();
+        String sql = """
+                SELECT s.section_id, s.course_id, s.instructor_id,
+                       c.code, c.title, c.credits,
+                       s.name AS section_name, s.capacity, s.room, s.timetable,
+                       i.name AS instructor_name,
+                       s.seats_taken AS enrolled
+                FROM sections s
+                LEFT JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.instructor_id = s.instructor_id
+                WHERE s.instructor_id = ?
+                ORDER BY s.course_id, s.name
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, instructorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(readCatalogRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    private static CatalogRow readCatalogRow(ResultSet rs) throws SQLException {
+        return new CatalogRow(
+                rs.getInt("section_id"),
+                rs.getInt("course_id"),
+                (Integer) rs.getObject("instructor_id"),
+                rs.getString("code"),
+                rs.getString("title"),
+                rs.getInt("credits"),
+                rs.getString("section_name") != null ? rs.getString("section_name") : "Section A",
+                rs.getString("instructor_name"),
+                rs.getInt("capacity"),
+                rs.getInt("enrolled"),
+                rs.getString("room"),
+                rs.getString("timetable")
+        );
+    }
+
     // Enrollment methods
     public int getEnrollmentCountForSection(int sectionId) {
-        String sql = "SELECT COUNT(*) FROM enrollments WHERE section_id = ?";
+        String sql = "SELECT seats_taken FROM sections WHERE section_id = ?";
         try (Connection conn = connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -606,6 +1088,81 @@ public class erpDB {
         return 0;
     }
 
+    // Enrollment counts for every section from the seats_taken counters; sections without enrollments are absent
+    public Map<Integer, Integer> getEnrollmentCountsBySection() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = "SELECT section_id, seats_taken FROM sections WHERE seats_taken > 0";
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return counts;
+    }
+
+    // Recomputes every section's seats_taken from enrollments and, when repair is set, rewrites the ones that
+    // drifted (e.g. rows edited by hand with the triggers dropped). Returns how many sections were off.
+    public int reconcileSeatCounts(boolean repair) {
+        String drifted = """
+                SELECT s.section_id, s.seats_taken, COUNT(e.id) AS actual
+                FROM sections s
+                LEFT JOIN enrollments e ON e.section_id = s.section_id
+                GROUP BY s.section_id
+                HAVING s.seats_taken <> COUNT(e.id)
+                """;
+        try (Connection conn = connect();
+             Statement tx = conn.createStatement()) {
+
+            tx.execute(repair ? "BEGIN IMMEDIATE" : "BEGIN");
+            try {
+                List<int[]> fixes = new ArrayList<>();
+                try (ResultSet rs = tx.executeQuery(drifted)) {
+                    while (rs.next()) {
+                        fixes.add(new int[]{rs.getInt("section_id"), rs.getInt("seats_taken"), rs.getInt("actual")});
+                    }
+                }
+                if (!fixes.isEmpty()) {
+                    // Drift means the triggers were bypassed, so it goes to stderr with the other data errors
+                    StringBuilder sections = new StringBuilder();
+                    for (int[] fix : fixes) {
+                        sections.append(sections.length() > 0 ? ", " : "")
+                                .append(fix[0]).append(" (").append(fix[1]).append(" -> ").append(fix[2]).append(')');
+                    }
+                    System.err.println("seats_taken drifted for " + fixes.size() + " section(s)"
+                            + (repair ? ", repairing: " : ": ") + sections);
+                }
+                if (repair && !fixes.isEmpty()) {
+                    try (PreparedStatement update = conn.prepareStatement(
+                            "UPDATE sections SET seats_taken = ? WHERE section_id = ?")) {
+                        for (int[] fix : fixes) {
+                            update.setInt(1, fix[2]);
+                            update.setInt(2, fix[0]);
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+                tx.execute("COMMIT");
+                return fixes.size();
+            } catch (SQLException e) {
+                try {
+                    tx.execute("ROLLBACK");
+                } catch (SQLException rollbackFailed) {
+                    ConnectionPool.evict(conn);
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     public List<Student> getStudentsForSection(int sectionId) {
         List<Student> list = new ArrayList<>();
         String sql = """
@@ -638,11 +1195,17 @@ public class erpDB {
     public boolean createEnrollment(int studentId, int sectionId) {
         String sql = "INSERT INTO enrollments (student_id, section_id, grade_id) VALUES (?, ?, NULL)";
         try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setInt(1, studentId);
             pstmt.setInt(2, sectionId);
             pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    ChangeBus.publish(new ChangeEvent(ChangeEvent.Entity.ENROLLMENT, ChangeEvent.Operation.CREATED,
+                            keys.getInt(1), studentId, sectionId));
+                }
+            }
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -650,6 +1213,100 @@ public class erpDB {
         }
     }
 
+    // Check capacity and insert under one write lock, so concurrent callers can never overbook a section
+    public RegistrationOutcome registerStudentForSection(int studentId, int sectionId) {
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = connect();
+                 Statement tx = conn.createStatement()) {
+
+                tx.execute("BEGIN IMMEDIATE");
+                try {
+                    int[] enrollmentId = new int[1];
+                    RegistrationOutcome outcome = registerInTransaction(conn, studentId, sectionId, enrollmentId);
+                    tx.execute(outcome == RegistrationOutcome.REGISTERED ? "COMMIT" : "ROLLBACK");
+                    if (outcome == RegistrationOutcome.REGISTERED) {
+                        ChangeBus.publish(new ChangeEvent(ChangeEvent.Entity.ENROLLMENT, ChangeEvent.Operation.CREATED,
+                                enrollmentId[0], studentId, sectionId));
+                    }
+                    return outcome;
+                } catch (SQLException e) {
+                    try {
+                        tx.execute("ROLLBACK");
+                    } catch (SQLException rollbackFailed) {
+                        // The pool only rolls back what setAutoCommit(false) opened, not a manual BEGIN
+                        ConnectionPool.evict(conn);
+                    }
+                    throw e;
+                }
+
+            } catch (SQLException e) {
+                if (isBusy(e) && attempt < MAX_WRITE_ATTEMPTS) {
+                    BUSY_RETRIES.incrementAndGet();
+                    try {
+                        Thread.sleep(10L * attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return RegistrationOutcome.FAILED;
+                    }
+                    continue;
+                }
+                e.printStackTrace();
+                return RegistrationOutcome.FAILED;
+            }
+        }
+    }
+
+    private RegistrationOutcome registerInTransaction(Connection conn, int studentId, int sectionId,
+                                                      int[] enrollmentId) throws SQLException {
+        int capacity;
+        int seatsTaken;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT capacity, seats_taken FROM sections WHERE section_id = ?")) {
+            stmt.setInt(1, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return RegistrationOutcome.SECTION_NOT_FOUND;
+                }
+                capacity = rs.getInt("capacity");
+                seatsTaken = rs.getInt("seats_taken");
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM enrollments WHERE student_id = ? AND section_id = ?")) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return RegistrationOutcome.ALREADY_REGISTERED;
+                }
+            }
+        }
+
+        if (seatsTaken >= capacity) {
+            return RegistrationOutcome.SECTION_FULL;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO enrollments (student_id, section_id, grade_id) VALUES (?, ?, NULL)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, sectionId);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    enrollmentId[0] = keys.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            if ((e.getErrorCode() & 0xFF) == SQLITE_CONSTRAINT) {
+                return RegistrationOutcome.ALREADY_REGISTERED;
+            }
+            throw e;
+        }
+        return RegistrationOutcome.REGISTERED;
+    }
+
     public Enrollment getEnrollmentById(int id) {
         String sql = "SELECT id, student_id, section_id, grade_id FROM enrollments WHERE id = ?";
         try (Connection conn = connect();
@@ -697,6 +1354,86 @@ public class erpDB {
         return list;
     }
 
+    // Student transcript snapshot: every enrollment joined with section, course, instructor and grade
+    public List<TranscriptEntry> getTranscriptSnapshot(int studentId) {
+        List<TranscriptEntry> list = new ArrayList<>();
+        String sql = """
+                SELECT e.id AS enrollment_id, e.student_id, e.section_id, e.grade_id,
+                       s.course_id, s.name AS section_name, s.room, s.timetable,
+                       c.code, c.title, c.credits,
+                       i.name AS instructor_name,
+                       g.grade
+                FROM enrollments e
+                INNER JOIN sections s ON s.section_id = e.section_id
+                LEFT JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.instructor_id = s.instructor_id
+                LEFT JOIN grades g ON g.grade_id = e.grade_id
+                WHERE e.student_id = ?
+                ORDER BY e.id
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(readTranscriptEntry(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    // A single transcript line, for patching an open dashboard after one enrollment changed
+    public TranscriptEntry getTranscriptEntry(int enrollmentId) {
+        String sql = """
+                SELECT e.id AS enrollment_id, e.student_id, e.section_id, e.grade_id,
+                       s.course_id, s.name AS section_name, s.room, s.timetable,
+                       c.code, c.title, c.credits,
+                       i.name AS instructor_name,
+                       g.grade
+                FROM enrollments e
+                INNER JOIN sections s ON s.section_id = e.section_id
+                LEFT JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.instructor_id = s.instructor_id
+                LEFT JOIN grades g ON g.grade_id = e.grade_id
+                WHERE e.id = ?
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, enrollmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return readTranscriptEntry(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static TranscriptEntry readTranscriptEntry(ResultSet rs) throws SQLException {
+        return new TranscriptEntry(
+                rs.getInt("enrollment_id"),
+                rs.getInt("student_id"),
+                rs.getInt("section_id"),
+                (Integer) rs.getObject("grade_id"),
+                rs.getInt("course_id"),
+                rs.getString("code"),
+                rs.getString("title"),
+                rs.getInt("credits"),
+                rs.getString("section_name") != null ? rs.getString("section_name") : "Section A",
+                rs.getString("room"),
+                rs.getString("timetable"),
+                rs.getString("instructor_name"),
+                rs.getString("grade")
+        );
+    }
+
     public List<Enrollment> getAllEnrollments() {
         List<Enrollment> list = new ArrayList<>();
         String sql = "SELECT id, student_id, section_id, grade_id FROM enrollments";
@@ -727,7 +1464,7 @@ public class erpDB {
 
             pstmt.setInt(1, gradeId);
             pstmt.setInt(2, enrollmentId);
-            pstmt.executeUpdate();
+            publish(ChangeEvent.Entity.ENROLLMENT, ChangeEvent.Operation.UPDATED, enrollmentId, pstmt.executeUpdate());
             return true;
 
         } catch (SQLException e) {
@@ -739,10 +1476,25 @@ public class erpDB {
     public boolean deleteEnrollment(int id) {
         String sql = "DELETE FROM enrollments WHERE id = ?";
         try (Connection conn = connect();
+             PreparedStatement lookup = conn.prepareStatement(
+                     "SELECT student_id, section_id FROM enrollments WHERE id = ?");
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
+            // Subscribers need to know whose enrollment and which section's seat this was
+            int studentId = 0;
+            int sectionId = 0;
+            lookup.setInt(1, id);
+            try (ResultSet rs = lookup.executeQuery()) {
+                if (rs.next()) {
+                    studentId = rs.getInt("student_id");
+                    sectionId = rs.getInt("section_id");
+                }
+            }
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                ChangeBus.publish(new ChangeEvent(ChangeEvent.Entity.ENROLLMENT, ChangeEvent.Operation.DELETED,
+                        id, studentId, sectionId));
+            }
             return true;
 
         } catch (SQLException e) {
@@ -792,7 +1544,8 @@ public class erpDB {
         }
     }
 
-    public List<Settings> getAllSettings() {
+    // Throws rather than returning a partial or empty list, so callers never mistake a failed read for no settings
+    public List<Settings> getAllSettings() throws SQLException {
         List<Settings> list = new ArrayList<>();
         String sql = "SELECT key, value FROM Settings";
 
@@ -806,9 +1559,6 @@ public class erpDB {
                         rs.getString("value")
                 ));
             }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return list;
     }
@@ -919,7 +1669,8 @@ public class erpDB {
     @Deprecated
     public static ResultSet getStudentByEmail(String email) throws Exception {
         String sql = "SELECT * FROM students WHERE email=?";
-        Connection conn = connect();
+        // Caller owns the ResultSet (and its connection), so this one bypasses the pool
+        Connection conn = DriverManager.getConnection(DB_URL);
         PreparedStatement stmt = conn.prepareStatement(sql);
         stmt.setString(1, email);
         return stmt.executeQuery();
@@ -929,7 +1680,8 @@ public class erpDB {
     @Deprecated
     public static ResultSet getInstructorByEmail(String email) throws Exception {
         String sql = "SELECT * FROM instructors WHERE email=?";
-        Connection conn = connect();
+        // Caller owns the ResultSet (and its connection), so this one bypasses the pool
+        Connection conn = DriverManager.getConnection(DB_URL);
         PreparedStatement stmt = conn.prepareStatement(sql);
         stmt.setString(1, email);
         return stmt.executeQuery();
@@ -959,107 +1711,58 @@ public class erpDB {
         }
     }
 
-    private void ensureColumn(String table, String column, String definition) {
-        String sql = "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition;
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        } catch (SQLException ignored) {
-            // column already exists
-        }
-    }
-
-    private void migrateSectionsTable() {
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-
-            // Check if semester column exists by querying table info
-            boolean hasSemester = false;
-            boolean hasRoom = false;
-            try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(sections)")) {
-                while (rs.next()) {
-                    String colName = rs.getString("name");
-                    if ("semester".equalsIgnoreCase(colName)) {
-                        hasSemester = true;
-                    }
-                    if ("room".equalsIgnoreCase(colName)) {
-                        hasRoom = true;
-                    }
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
                 }
-            } catch (SQLException e) {
-                // Table might not exist yet, which is fine
-                return;
             }
+        }
+        return false;
+    }
 
-            if (hasSemester) {
-                // Old schema detected - migrate to new schema
-                System.out.println("Migrating sections table from old schema...");
-
-                // Create new table with correct schema
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS sections_new (
-                        section_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        course_id INTEGER NOT NULL,
-                        instructor_id INTEGER,
-                        name TEXT NOT NULL DEFAULT 'Section A',
-                        capacity INTEGER NOT NULL DEFAULT 60,
-                        room TEXT,
-                        timetable TEXT,
-                        FOREIGN KEY(course_id) REFERENCES courses(course_id),
-                        FOREIGN KEY(instructor_id) REFERENCES instructors(instructor_id)
-                    )
-                    """);
-
-                // Copy data from old table (excluding semester)
-                try {
-                    // Check if room column exists in old table, if not use NULL
-                    String copySql;
-                    if (hasRoom) {
-                        copySql = """
-                            INSERT INTO sections_new (section_id, course_id, instructor_id, name, capacity, room, timetable)
-                            SELECT section_id, course_id, instructor_id, 
-                                   COALESCE(name, 'Section A') as name,
-                                   COALESCE(capacity, 60) as capacity,
-                                   room,
-                                   COALESCE(timetable, '') as timetable
-                            FROM sections
-                            """;
-                    } else {
-                        copySql = """
-                            INSERT INTO sections_new (section_id, course_id, instructor_id, name, capacity, room, timetable)
-                            SELECT section_id, course_id, instructor_id, 
-                                   COALESCE(name, 'Section A') as name,
-                                   COALESCE(capacity, 60) as capacity,
-                                   NULL as room,
-                                   COALESCE(timetable, '') as timetable
-                            FROM sections
-                            """;
-                    }
-
-                    stmt.execute(copySql);
+    private static void migrateSectionsTable(Connection conn) throws SQLException {
+        if (!hasColumn(conn, "sections", "semester")) {
+            return;
+        }
 
-                    // Drop old table and rename new one
-                    stmt.execute("DROP TABLE sections");
-                    stmt.execute("ALTER TABLE sections_new RENAME TO sections");
-                    System.out.println("Sections table migration completed successfully.");
-                } catch (SQLException e) {
-                    // If copy fails, drop the new table and keep old one
-                    try {
-                        stmt.execute("DROP TABLE sections_new");
-                    } catch (SQLException ignored) {}
-                    System.err.println("Migration failed, keeping old schema: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            } else {
-                // New schema - just ensure room column exists
-                if (!hasRoom) {
-                    ensureColumn("sections", "room", "TEXT");
-                }
-            }
+        // Old schema detected - rebuild without the semester column
+        System.out.println("Migrating sections table from old schema...");
+        boolean hasRoom = hasColumn(conn, "sections", "room");
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE sections_new (
+                    section_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    course_id INTEGER NOT NULL,
+                    instructor_id INTEGER,
+                    name TEXT NOT NULL DEFAULT 'Section A',
+                    capacity INTEGER NOT NULL DEFAULT 60,
+                    room TEXT,
+                    timetable TEXT,
+                    FOREIGN KEY(course_id) REFERENCES courses(course_id),
+                    FOREIGN KEY(instructor_id) REFERENCES instructors(instructor_id)
+                )
+                """);
+
+            // Copy data from old table (excluding semester); use NULL if room did not exist yet
+            String roomColumn = hasRoom ? "room" : "NULL";
+            stmt.execute("""
+                INSERT INTO sections_new (section_id, course_id, instructor_id, name, capacity, room, timetable)
+                SELECT section_id, course_id, instructor_id,
+                       COALESCE(name, 'Section A') as name,
+                       COALESCE(capacity, 60) as capacity,
+                       %s as room,
+                       COALESCE(timetable, '') as timetable
+                FROM sections
+                """.formatted(roomColumn));
+
+            stmt.execute("DROP TABLE sections");
+            stmt.execute("ALTER TABLE sections_new RENAME TO sections");
         }
+        System.out.println("Sections table migration completed successfully.");
     }
 
     // Grade methods
@@ -1205,6 +1908,47 @@ public class erpDB {
         return list;
     }
 
+    // Grading roster for one instructor's sections of a course, one page at a time
+    public List<RosterEntry> getGradingRoster(int instructorId, int courseId, int offset, int limit) {
+        List<RosterEntry> list = new ArrayList<>();
+        String sql = """
+                SELECT e.id AS enrollment_id, e.section_id, s.name AS section_name,
+                       st.student_id, st.name AS student_name, st.email,
+                       e.grade_id, g.grade
+                FROM sections s
+                INNER JOIN enrollments e ON e.section_id = s.section_id
+                INNER JOIN students st ON st.student_id = e.student_id
+                LEFT JOIN grades g ON g.grade_id = e.grade_id
+                WHERE s.instructor_id = ? AND s.course_id = ?
+                ORDER BY s.name, e.id
+                LIMIT ? OFFSET ?
+                """;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, instructorId);
+            stmt.setInt(2, courseId);
+            stmt.setInt(3, limit);
+            stmt.setInt(4, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new RosterEntry(
+                            rs.getInt("enrollment_id"),
+                            rs.getInt("section_id"),
+                            rs.getString("section_name"),
+                            rs.getInt("student_id"),
+                            rs.getString("student_name"),
+                            rs.getString("email"),
+                            (Integer) rs.getObject("grade_id"),
+                            rs.getString("grade")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
     // Create or update grade for an enrollment
     public int createOrUpdateGrade(int enrollmentId, float sgpa) {
         // First check if grade exists
@@ -0,0 +1,27 @@
+package model;
+
+// One login plus profile to create during bulk provisioning, e.g. a row from an onboarding CSV
+public class AccountRequest {
+    private final int lineNumber;
+    private final String username;
+    private final String password;
+    private final String name;
+    private final String email;
+    private final String detail; // Program for students, department for instructors
+
+    public AccountRequest(int lineNumber, String username, String password, String name, String email, String detail) {
+        this.lineNumber = lineNumber;
+        this.username = username;
+        this.password = password;
+        this.name = name;
+        this.email = email;
+        this.detail = detail;
+    }
+
+    public int getLineNumber() { return lineNumber; }
+    public String getUsername() { return username; }
+    public String getPassword() { return password; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getDetail() { return detail; }
+}
@@ -0,0 +1,122 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Aggregates behind the admin Statistics tab, computed together from one consistent read
+public class AdminStatistics {
+
+    public static final String COURSE_ENROLLMENTS = "Course Enrollments";
+    public static final String INSTRUCTOR_LOADS = "Instructor Loads";
+    public static final String SECTION_CAPACITY = "Section Capacity";
+    public static final String OVERALL = "Overall Statistics";
+
+    private final List<CourseEnrollment> courseEnrollments;
+    private final List<InstructorLoad> instructorLoads;
+    private final List<SectionCapacity> sectionCapacities;
+    private final Totals totals;
+    private final Map<String, Long> panelNanos;
+
+    public AdminStatistics(List<CourseEnrollment> courseEnrollments,
+                           List<InstructorLoad> instructorLoads,
+                           List<SectionCapacity> sectionCapacities,
+                           Totals totals,
+                           Map<String, Long> panelNanos) {
+        this.courseEnrollments = courseEnrollments;
+        this.instructorLoads = instructorLoads;
+        this.sectionCapacities = sectionCapacities;
+        this.totals = totals;
+        this.panelNanos = Collections.unmodifiableMap(new LinkedHashMap<>(panelNanos));
+    }
+
+    public List<CourseEnrollment> getCourseEnrollments() { return courseEnrollments; }
+    public List<InstructorLoad> getInstructorLoads() { return instructorLoads; }
+    public List<SectionCapacity> getSectionCapacities() { return sectionCapacities; }
+    public Totals getTotals() { return totals; }
+    public Map<String, Long> getPanelNanos() { return panelNanos; }
+
+    // Query time for one panel in milliseconds, 0 if it was not recorded
+    public double getPanelMillis(String panel) {
+        Long nanos = panelNanos.get(panel);
+        return nanos != null ? nanos / 1_000_000.0 : 0.0;
+    }
+
+    public static class CourseEnrollment {
+        private final String code;
+        private final String title;
+        private final int sections;
+        private final int enrolled;
+
+        public CourseEnrollment(String code, String title, int sections, int enrolled) {
+            this.code = code;
+            this.title = title;
+            this.sections = sections;
+            this.enrolled = enrolled;
+        }
+
+        public String getCode() { return code; }
+        public String getTitle() { return title; }
+        public int getSections() { return sections; }
+        public int getEnrolled() { return enrolled; }
+    }
+
+    public static class InstructorLoad {
+        private final String name;
+        private final int sections;
+        private final int students;
+
+        public InstructorLoad(String name, int sections, int students) {
+            this.name = name;
+            this.sections = sections;
+            this.students = students;
+        }
+
+        public String getName() { return name; }
+        public int getSections() { return sections; }
+        public int getStudents() { return students; }
+    }
+
+    public static class SectionCapacity {
+        private final String courseCode; // Nullable if the course was removed
+        private final String sectionName;
+        private final int capacity;
+        private final int enrolled;
+
+        public SectionCapacity(String courseCode, String sectionName, int capacity, int enrolled) {
+            this.courseCode = courseCode;
+            this.sectionName = sectionName;
+            this.capacity = capacity;
+            this.enrolled = enrolled;
+        }
+
+        public String getCourseCode() { return courseCode; }
+        public String getSectionName() { return sectionName; }
+        public int getCapacity() { return capacity; }
+        public int getEnrolled() { return enrolled; }
+        public int getAvailable() { return capacity - enrolled; }
+    }
+
+    public static class Totals {
+        private final int students;
+        private final int instructors;
+        private final int courses;
+        private final int sections;
+        private final int enrollments;
+
+        public Totals(int students, int instructors, int courses, int sections, int enrollments) {
+            this.students = students;
+            this.instructors = instructors;
+            this.courses = courses;
+            this.sections = sections;
+            this.enrollments = enrollments;
+        }
+
+        public int getStudents() { return students; }
+        public int getInstructors() { return instructors; }
+        public int getCourses() { return courses; }
+        public int getSections() { return sections; }
+        public int getEnrollments() { return enrollments; }
+    }
+}
@@ -0,0 +1,64 @@
+package model;
+
+// One catalog line: a section joined with its course, instructor and current enrollment count
+public class CatalogRow {
+    private final int sectionId;
+    private final int courseId;
+    private final Integer instructorId;
+    private final String courseCode;
+    private final String courseTitle;
+    private final int credits;
+    private final String sectionName;
+    private final String instructorName; // Nullable when unassigned
+    private final int capacity;
+    private final int enrolled;
+    private final String room;
+    private final String timetable;
+
+    public CatalogRow(int sectionId,
+                      int courseId,
+                      Integer instructorId,
+                      String courseCode,
+                      String courseTitle,
+                      int credits,
+                      String sectionName,
+                      String instructorName,
+                      int capacity,
+                      int enrolled,
+                      String room,
+                      String timetable) {
+        this.sectionId = sectionId;
+        this.courseId = courseId;
+        this.instructorId = instructorId;
+        this.courseCode = courseCode;
+        this.courseTitle = courseTitle;
+        this.credits = credits;
+        this.sectionName = sectionName;
+        this.instructorName = instructorName;
+        this.capacity = capacity;
+        this.enrolled = enrolled;
+        this.room = room;
+        this.timetable = timetable;
+    }
+
+    public int getSectionId() { return sectionId; }
+    public int getCourseId() { return courseId; }
+    public Integer getInstructorId() { return instructorId; }
+    public String getCourseCode() { return courseCode; }
+    public String getCourseTitle() { return courseTitle; }
+    public int getCredits() { return credits; }
+    public String getSectionName() { return sectionName; }
+    public String getInstructorName() { return instructorName; }
+    public int getCapacity() { return capacity; }
+    public int getEnrolled() { return enrolled; }
+    public String getRoom() { return room; }
+    public String getTimetable() { return timetable; }
+
+    public int getSeatsRemaining() {
+        return capacity - enrolled;
+    }
+
+    public Section toSection() {
+        return new Section(sectionId, courseId, instructorId, sectionName, capacity, room, timetable);
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+// One committed write to erp.db: what kind of row, which one, and how it changed. Enrollment events also
+// carry the student and section involved when the writer knows them (0 otherwise), so a dashboard can
+// tell whether the change touches it without another query. An id of 0 marks a bulk change of many rows.
+public class ChangeEvent {
+
+    public enum Entity { STUDENT, INSTRUCTOR, COURSE, SECTION, ENROLLMENT }
+
+    public enum Operation { CREATED, UPDATED, DELETED }
+
+    private final Entity entity;
+    private final Operation operation;
+    private final int id;
+    private final int studentId;
+    private final int sectionId;
+
+    public ChangeEvent(Entity entity, Operation operation, int id) {
+        this(entity, operation, id, 0, 0);
+    }
+
+    public ChangeEvent(Entity entity, Operation operation, int id, int studentId, int sectionId) {
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.studentId = studentId;
+        this.sectionId = sectionId;
+    }
+
+    public static ChangeEvent bulk(Entity entity) {
+        return new ChangeEvent(entity, Operation.UPDATED, 0);
+    }
+
+    public Entity getEntity() { return entity; }
+    public Operation getOperation() { return operation; }
+    public int getId() { return id; }
+    public int getStudentId() { return studentId; }
+    public int getSectionId() { return sectionId; }
+
+    public boolean isBulk() {
+        return id == 0;
+    }
+
+    @Override
+    public String toString() {
+        return entity + " " + operation + (isBulk() ? " (bulk)" : " #" + id);
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a bulk provisioning run: how many accounts were created and why the rest were skipped
+public class ProvisioningReport {
+
+    public static class RowError {
+        private final int lineNumber;
+        private final String username;
+        private final String message;
+
+        public RowError(int lineNumber, String username, String message) {
+            this.lineNumber = lineNumber;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getUsername() { return username; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + (username != null && !username.isEmpty() ? " (" + username + ")" : "") + ": " + message;
+        }
+    }
+
+    private final List<RowError> errors = new ArrayList<>();
+    private int created;
+    private String failure; // Set when the whole batch was rolled back
+    private long elapsedMillis;
+
+    public void addError(int lineNumber, String username, String message) {
+        errors.add(new RowError(lineNumber, username, message));
+    }
+
+    public void setCreated(int created) { this.created = created; }
+    public void setFailure(String failure) { this.failure = failure; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public int getCreated() { return created; }
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+    public String getFailure() { return failure; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isFailed() { return failure != null; }
+}
@@ -0,0 +1,10 @@
+package model;
+
+// Result of an atomic, capacity-checked registration attempt
+public enum RegistrationOutcome {
+    REGISTERED,
+    ALREADY_REGISTERED,
+    SECTION_FULL,
+    SECTION_NOT_FOUND,
+    FAILED
+}
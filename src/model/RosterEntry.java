@@ -0,0 +1,44 @@
+package model;
+
+// One student on an instructor's grading roster: enrollment, student and grade in a single row
+public class RosterEntry {
+    private final int enrollmentId;
+    private final int sectionId;
+    private final String sectionName;
+    private final int studentId;
+    private final String studentName;
+    private final String studentEmail;
+    private final Integer gradeId; // Nullable
+    private final String grade; // Raw SGPA string, nullable
+
+    public RosterEntry(int enrollmentId,
+                       int sectionId,
+                       String sectionName,
+                       int studentId,
+                       String studentName,
+                       String studentEmail,
+                       Integer gradeId,
+                       String grade) {
+        this.enrollmentId = enrollmentId;
+        this.sectionId = sectionId;
+        this.sectionName = sectionName;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.studentEmail = studentEmail;
+        this.gradeId = gradeId;
+        this.grade = grade;
+    }
+
+    public int getEnrollmentId() { return enrollmentId; }
+    public int getSectionId() { return sectionId; }
+    public String getSectionName() { return sectionName; }
+    public int getStudentId() { return studentId; }
+    public String getStudentName() { return studentName; }
+    public String getStudentEmail() { return studentEmail; }
+    public Integer getGradeId() { return gradeId; }
+
+    // Grade for this enrollment, or null if none has been recorded
+    public Grade getGrade() {
+        return gradeId != null && grade != null ? new Grade(gradeId, enrollmentId, grade) : null;
+    }
+}
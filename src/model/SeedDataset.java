@@ -0,0 +1,110 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Declarative sample data: logins with their profiles, courses, and sections that point at a course code
+// and an instructor email. The name/version pair is recorded in settings once the dataset has been loaded.
+public class SeedDataset {
+
+    public static class CourseSeed {
+        private final String code;
+        private final String title;
+        private final int credits;
+
+        public CourseSeed(String code, String title, int credits) {
+            this.code = code;
+            this.title = title;
+            this.credits = credits;
+        }
+
+        public String getCode() { return code; }
+        public String getTitle() { return title; }
+        public int getCredits() { return credits; }
+    }
+
+    public static class SectionSeed {
+        private final String courseCode;
+        private final String instructorEmail;
+        private final String name;
+        private final int capacity;
+        private final String room;
+        private final String timetable;
+
+        public SectionSeed(String courseCode, String instructorEmail, String name, int capacity, String room, String timetable) {
+            this.courseCode = courseCode;
+            this.instructorEmail = instructorEmail;
+            this.name = name;
+            this.capacity = capacity;
+            this.room = room;
+            this.timetable = timetable;
+        }
+
+        public String getCourseCode() { return courseCode; }
+        public String getInstructorEmail() { return instructorEmail; }
+        public String getName() { return name; }
+        public int getCapacity() { return capacity; }
+        public String getRoom() { return room; }
+        public String getTimetable() { return timetable; }
+    }
+
+    private final String name;
+    private final int version;
+    private final List<AccountRequest> students = new ArrayList<>();
+    private final List<AccountRequest> instructors = new ArrayList<>();
+    private final List<AccountRequest> admins = new ArrayList<>();
+    private final List<CourseSeed> courses = new ArrayList<>();
+    private final List<SectionSeed> sections = new ArrayList<>();
+    private boolean sharedPasswordHashes;
+
+    public SeedDataset(String name, int version) {
+        this.name = name;
+        this.version = version;
+    }
+
+    public SeedDataset addStudent(String username, String password, String name, String email, String program) {
+        students.add(new AccountRequest(students.size() + 1, username, password, name, email, program));
+        return this;
+    }
+
+    public SeedDataset addInstructor(String username, String password, String name, String email, String department) {
+        instructors.add(new AccountRequest(instructors.size() + 1, username, password, name, email, department));
+        return this;
+    }
+
+    public SeedDataset addAdmin(String username, String password) {
+        admins.add(new AccountRequest(admins.size() + 1, username, password, null, null, null));
+        return this;
+    }
+
+    public SeedDataset addCourse(String code, String title, int credits) {
+        courses.add(new CourseSeed(code, title, credits));
+        return this;
+    }
+
+    public SeedDataset addSection(String courseCode, String instructorEmail, String name, int capacity,
+                                  String room, String timetable) {
+        sections.add(new SectionSeed(courseCode, instructorEmail, name, capacity, room, timetable));
+        return this;
+    }
+
+    // Synthetic datasets only: accounts with the same password reuse one salted hash, so tens of thousands
+    // of logins don't each pay for the KDF. Real accounts must never share a salt.
+    public SeedDataset sharePasswordHashes() {
+        sharedPasswordHashes = true;
+        return this;
+    }
+
+    public String getName() { return name; }
+    public int getVersion() { return version; }
+    public List<AccountRequest> getStudents() { return students; }
+    public List<AccountRequest> getInstructors() { return instructors; }
+    public List<AccountRequest> getAdmins() { return admins; }
+    public List<CourseSeed> getCourses() { return courses; }
+    public List<SectionSeed> getSections() { return sections; }
+    public boolean hasSharedPasswordHashes() { return sharedPasswordHashes; }
+
+    public int getRowCount() {
+        return students.size() + instructors.size() + admins.size() + courses.size() + sections.size();
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+// An authenticated login held in memory: who it is, what they may do and which profile they map to
+public class Session {
+    private final String token;
+    private final String username;
+    private final String role;
+    private final Integer profileId; // Null for admins
+    private final long createdAtMillis;
+    private volatile String passwordHash;
+    private volatile long lastAccessMillis;
+
+    public Session(String token, String username, String role, Integer profileId, String passwordHash, long now) {
+        this.token = token;
+        this.username = username;
+        this.role = role;
+        this.profileId = profileId;
+        this.passwordHash = passwordHash;
+        this.createdAtMillis = now;
+        this.lastAccessMillis = now;
+    }
+
+    public String getToken() { return token; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public Integer getProfileId() { return profileId; }
+    public String getPasswordHash() { return passwordHash; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public long getLastAccessMillis() { return lastAccessMillis; }
+
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public void touch(long now) { this.lastAccessMillis = now; }
+
+    public boolean hasRole(String role) {
+        return this.role != null && this.role.equalsIgnoreCase(role);
+    }
+}
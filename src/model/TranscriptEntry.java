@@ -0,0 +1,72 @@
+package model;
+
+// One enrollment of a student joined with its section, course, instructor and grade
+public class TranscriptEntry {
+    private final int enrollmentId;
+    private final int studentId;
+    private final int sectionId;
+    private final Integer gradeId; // Nullable
+    private final int courseId;
+    private final String courseCode; // Nullable if the course was removed
+    private final String courseTitle;
+    private final int credits;
+    private final String sectionName;
+    private final String room;
+    private final String timetable;
+    private final String instructorName; // Nullable when unassigned
+    private final String grade; // Raw SGPA string, nullable
+
+    public TranscriptEntry(int enrollmentId,
+                           int studentId,
+                           int sectionId,
+                           Integer gradeId,
+                           int courseId,
+                           String courseCode,
+                           String courseTitle,
+                           int credits,
+                           String sectionName,
+                           String room,
+                           String timetable,
+                           String instructorName,
+                           String grade) {
+        this.enrollmentId = enrollmentId;
+        this.studentId = studentId;
+        this.sectionId = sectionId;
+        this.gradeId = gradeId;
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.courseTitle = courseTitle;
+        this.credits = credits;
+        this.sectionName = sectionName;
+        this.room = room;
+        this.timetable = timetable;
+        this.instructorName = instructorName;
+        this.grade = grade;
+    }
+
+    public int getEnrollmentId() { return enrollmentId; }
+    public int getStudentId() { return studentId; }
+    public int getSectionId() { return sectionId; }
+    public Integer getGradeId() { return gradeId; }
+    public int getCourseId() { return courseId; }
+    public String getCourseCode() { return courseCode; }
+    public String getCourseTitle() { return courseTitle; }
+    public int getCredits() { return credits; }
+    public String getSectionName() { return sectionName; }
+    public String getRoom() { return room; }
+    public String getTimetable() { return timetable; }
+    public String getInstructorName() { return instructorName; }
+
+    public boolean hasCourse() {
+        return courseCode != null;
+    }
+
+    // Grade for this enrollment, or null if none has been recorded
+    public Grade getGrade() {
+        return gradeId != null && grade != null ? new Grade(gradeId, enrollmentId, grade) : null;
+    }
+
+    public Enrollment toEnrollment() {
+        return new Enrollment(enrollmentId, studentId, sectionId, gradeId);
+    }
+}
@@ -4,6 +4,7 @@ public class User {
     private final String username;
     private final String passwordHash;
     private final String role;
+    private String sessionToken; // Set once the login pipeline has opened a session
 
     public User(String username, String passwordHash, String role) {
         this.username = username;
@@ -14,5 +15,7 @@ public class User {
     public String getUsername() {return username;}
     public String getPasswordHash() {return passwordHash;}
     public String getRole() {return role;}
+    public String getSessionToken() {return sessionToken;}
+    public void setSessionToken(String sessionToken) {this.sessionToken = sessionToken;}
 }
 
@@ -0,0 +1,208 @@
+package service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Latency histograms and outcome counters for the AuthService entry points. Each call also splits its
+// time into auth.db work (including the wait for a pooled connection) and password hashing, so a slow
+// login can be pinned on SQLite locking or on the KDF. Counters are process-wide and reset on restart.
+public class AuthMetrics {
+
+    public enum Operation { LOGIN, REGISTER, CHANGE_PASSWORD }
+
+    // Upper bounds of the histogram buckets; one extra bucket catches everything slower
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private static final Map<Operation, Recorder> RECORDERS = new EnumMap<>(Operation.class);
+
+    static {
+        for (Operation operation : Operation.values()) {
+            RECORDERS.put(operation, new Recorder());
+        }
+    }
+
+    public static Timer start(Operation operation) {
+        return new Timer(RECORDERS.get(operation));
+    }
+
+    public static Map<Operation, OperationStats> getSnapshot() {
+        Map<Operation, OperationStats> snapshot = new EnumMap<>(Operation.class);
+        RECORDERS.forEach((operation, recorder) -> snapshot.put(operation, recorder.snapshot(operation)));
+        return snapshot;
+    }
+
+    public static OperationStats getStats(Operation operation) {
+        return RECORDERS.get(operation).snapshot(operation);
+    }
+
+    public static void reset() {
+        RECORDERS.values().forEach(Recorder::reset);
+    }
+
+    public static long[] getBucketBoundsMillis() {
+        return BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    // One in-flight call. Callers pass the System.nanoTime() taken before a step to db()/hash(),
+    // and close the call with finish(); an error marked along the way wins over the success flag.
+    public static class Timer {
+        private final Recorder recorder;
+        private final long started = System.nanoTime();
+        private long dbNanos;
+        private long hashNanos;
+        private boolean error;
+        private boolean finished;
+
+        private Timer(Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        public void db(long stepStarted) {
+            dbNanos += System.nanoTime() - stepStarted;
+        }
+
+        public void hash(long stepStarted) {
+            hashNanos += System.nanoTime() - stepStarted;
+        }
+
+        public void markError() {
+            error = true;
+        }
+
+        public void finish(boolean success) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            recorder.record(System.nanoTime() - started, dbNanos, hashNanos, error ? 2 : success ? 0 : 1);
+        }
+    }
+
+    private static class Recorder {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong dbNanos = new AtomicLong();
+        private final AtomicLong hashNanos = new AtomicLong();
+
+        void record(long elapsed, long db, long hash, int outcome) {
+            buckets.incrementAndGet(bucketFor(elapsed));
+            if (outcome == 0) {
+                successes.incrementAndGet();
+            } else if (outcome == 1) {
+                failures.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+            totalNanos.addAndGet(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            dbNanos.addAndGet(db);
+            hashNanos.addAndGet(hash);
+        }
+
+        // Reads are not atomic across fields; a snapshot taken mid-call may be off by that one call
+        OperationStats snapshot(Operation operation) {
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new OperationStats(operation, successes.get(), failures.get(), errors.get(), totalNanos.get(),
+                    maxNanos.get(), dbNanos.get(), hashNanos.get(), counts);
+        }
+
+        void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            successes.set(0);
+            failures.set(0);
+            errors.set(0);
+            totalNanos.set(0);
+            maxNanos.set(0);
+            dbNanos.set(0);
+            hashNanos.set(0);
+        }
+
+        private static int bucketFor(long elapsedNanos) {
+            double millis = elapsedNanos / 1_000_000.0;
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                if (millis <= BUCKET_BOUNDS_MILLIS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS_MILLIS.length;
+        }
+    }
+
+    public static class OperationStats {
+        private final Operation operation;
+        private final long successes;
+        private final long failures;
+        private final long errors;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long dbNanos;
+        private final long hashNanos;
+        private final long[] buckets;
+
+        OperationStats(Operation operation, long successes, long failures, long errors, long totalNanos,
+                       long maxNanos, long dbNanos, long hashNanos, long[] buckets) {
+            this.operation = operation;
+            this.successes = successes;
+            this.failures = failures;
+            this.errors = errors;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.dbNanos = dbNanos;
+            this.hashNanos = hashNanos;
+            this.buckets = buckets;
+        }
+
+        public Operation getOperation() { return operation; }
+        public long getCount() { return successes + failures + errors; }
+        public long getSuccesses() { return successes; }
+        public long getFailures() { return failures; }
+        public long getErrors() { return errors; }
+        public double getAvgMillis() { return avg(totalNanos); }
+        public double getMaxMillis() { return maxNanos / 1_000_000.0; }
+        public double getAvgDbMillis() { return avg(dbNanos); }
+        public double getAvgHashMillis() { return avg(hashNanos); }
+        public long[] getBucketCounts() { return buckets.clone(); }
+
+        // Upper bound of the bucket holding the given percentile; the overflow bucket reports the max seen
+        public double getPercentileMillis(double percentile) {
+            long count = getCount();
+            if (count == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(BUCKET_BOUNDS_MILLIS[i], getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        private double avg(long nanos) {
+            long count = getCount();
+            return count == 0 ? 0.0 : nanos / 1_000_000.0 / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: calls=%d ok=%d failed=%d errors=%d avg=%.1fms p50<=%.0fms p95<=%.0fms"
+                            + " p99<=%.0fms max=%.1fms (db %.1fms, hash %.1fms)",
+                    operation, getCount(), successes, failures, errors, getAvgMillis(), getPercentileMillis(50),
+                    getPercentileMillis(95), getPercentileMillis(99), getMaxMillis(), getAvgDbMillis(),
+                    getAvgHashMillis());
+        }
+    }
+}
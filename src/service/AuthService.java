@@ -1,62 +1,225 @@
 package service;
 
 import db.AuthDB;
+import model.Session;
 import model.User;
+import util.PasswordHasher;
 import util.PasswordUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.UUID;
 
 public class AuthService {
 
+    // Checked when the username is unknown, so a miss costs the same KDF work as a wrong password and
+    // login timing doesn't reveal which usernames exist. Built on first use at the configured cost.
+    private static class DummyHash {
+        private static final String VALUE = PasswordUtils.hashPassword(UUID.randomUUID().toString());
+    }
+
     public static User login(String username, String password) {
+        AuthMetrics.Timer timer = AuthMetrics.start(AuthMetrics.Operation.LOGIN);
+        User user = null;
+        try {
+            user = authenticate(username, password, timer);
+            return user;
+        } catch (RuntimeException e) {
+            timer.markError();
+            throw e;
+        } finally {
+            timer.finish(user != null);
+        }
+    }
+
+    private static User authenticate(String username, String password, AuthMetrics.Timer timer) {
         String sql = "SELECT username, password_hash, role FROM users WHERE username=?";
+        String storedHash = null;
+        String role = null;
+        long step = System.nanoTime();
         try (Connection conn = AuthDB.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    String storedHash = rs.getString("password_hash");
-                    String role = rs.getString("role");
-
-                    if (storedHash.equals(PasswordUtils.hashPassword(password))) {
-                        return new User(username, storedHash, role);
-                    }
+                    storedHash = rs.getString("password_hash");
+                    role = rs.getString("role");
                 }
             }
         } catch (Exception e) {
             e.printStackTrace();
+            timer.markError();
+            return null;
+        } finally {
+            timer.db(step);
+        }
+
+        // Hashing runs on the bounded hasher pool once the auth.db connection is back in its pool.
+        // A saturated pool surfaces as IllegalStateException so the caller can say "busy", not "wrong password".
+        step = System.nanoTime();
+        boolean verified;
+        try {
+            verified = PasswordHasher.verify(password, storedHash != null ? storedHash : DummyHash.VALUE);
+        } finally {
+            timer.hash(step);
+        }
+        if (!verified || storedHash == null) {
+            return null; // login failed
         }
-        return null; // login failed
+        if (PasswordUtils.needsRehash(storedHash)) {
+            // Transparently move the account to the configured KDF and cost. Best effort: the password is
+            // already verified, so a busy hasher only defers the upgrade to a later login.
+            step = System.nanoTime();
+            String upgraded = null;
+            try {
+                upgraded = PasswordHasher.hash(password);
+            } catch (IllegalStateException e) {
+                System.err.println("Password upgrade for " + username + " deferred: " + e.getMessage());
+            } finally {
+                timer.hash(step);
+            }
+            if (upgraded != null) {
+                step = System.nanoTime();
+                if (AuthDB.updatePassword(username, upgraded)) {
+                    storedHash = upgraded;
+                }
+                timer.db(step);
+            }
+        }
+        return new User(username, storedHash, role);
     }
 
     public static boolean register(String username, String password, String role) {
+        AuthMetrics.Timer timer = AuthMetrics.start(AuthMetrics.Operation.REGISTER);
+        boolean registered = false;
         try {
-            if (AuthDB.userExists(username)) {
+            long step = System.nanoTime();
+            boolean exists = AuthDB.userExists(username);
+            timer.db(step);
+            if (exists) {
                 System.out.println("User already exists: " + username);
                 return false;
             }
-            String hash = PasswordUtils.hashPassword(password);
+            step = System.nanoTime();
+            String hash = PasswordHasher.hash(password);
+            timer.hash(step);
+            step = System.nanoTime();
             AuthDB.addUser(username, hash, role);
+            timer.db(step);
             System.out.println("User registered: " + username);
+            registered = true;
             return true;
         } catch (Exception e) {
             e.printStackTrace();
+            timer.markError();
             return false;
+        } finally {
+            timer.finish(registered);
+        }
+    }
+
+    // Opens a session for a verified user and attaches its token to the User
+    public static Session startSession(User user, Integer profileId) {
+        Session session = SessionManager.open(user, profileId);
+        user.setSessionToken(session.getToken());
+        return session;
+    }
+
+    public static Session getSession(User user) {
+        return user == null ? null : SessionManager.validate(user.getSessionToken());
+    }
+
+    // Role check against the cached session; no auth.db round trip
+    public static boolean hasRole(User user, String role) {
+        Session session = getSession(user);
+        return session != null && session.hasRole(role);
+    }
+
+    public static void logout(User user) {
+        if (user != null) {
+            SessionManager.close(user.getSessionToken());
+            user.setSessionToken(null);
+        }
+    }
+
+    // With a live session the current password is checked against the cached hash instead of re-running login()
+    public static boolean changePassword(User user, String currentPassword, String newPassword) {
+        Session session = getSession(user);
+        if (session == null) {
+            return changePassword(user.getUsername(), currentPassword, newPassword);
+        }
+        AuthMetrics.Timer timer = AuthMetrics.start(AuthMetrics.Operation.CHANGE_PASSWORD);
+        boolean changed = false;
+        try {
+            long step = System.nanoTime();
+            boolean verified = PasswordHasher.verify(currentPassword, session.getPasswordHash());
+            timer.hash(step);
+            if (!verified) {
+                return false;
+            }
+            step = System.nanoTime();
+            String newHash = PasswordHasher.hash(newPassword);
+            timer.hash(step);
+            step = System.nanoTime();
+            boolean updated = AuthDB.updatePassword(user.getUsername(), newHash);
+            timer.db(step);
+            if (!updated) {
+                timer.markError();
+                return false;
+            }
+            session.setPasswordHash(newHash);
+            SessionManager.invalidateUser(user.getUsername(), session.getToken());
+            changed = true;
+            return true;
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+            timer.markError();
+            return false;
+        } finally {
+            timer.finish(changed);
         }
     }
 
     public static boolean changePassword(String username, String currentPassword, String newPassword) {
-        User existing = login(username, currentPassword);
-        if (existing == null) {
+        AuthMetrics.Timer timer = AuthMetrics.start(AuthMetrics.Operation.CHANGE_PASSWORD);
+        boolean changed = false;
+        try {
+            // Verified here rather than through login() so the attempt isn't also counted as a login
+            User existing = authenticate(username, currentPassword, timer);
+            if (existing == null) {
+                return false;
+            }
+            long step = System.nanoTime();
+            String newHash = PasswordHasher.hash(newPassword);
+            timer.hash(step);
+            step = System.nanoTime();
+            boolean updated = AuthDB.updatePassword(username, newHash);
+            timer.db(step);
+            if (!updated) {
+                timer.markError();
+                return false;
+            }
+            SessionManager.invalidateUser(username, null);
+            changed = true;
+            return true;
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+            timer.markError();
             return false;
+        } finally {
+            timer.finish(changed);
         }
-        String newHash = PasswordUtils.hashPassword(newPassword);
-        return AuthDB.updatePassword(username, newHash);
+    }
+
+    // A deleted profile must not keep acting through sessions opened before it was removed
+    public static void endProfileSessions(String role, int profileId) {
+        SessionManager.invalidateProfile(role, profileId);
     }
 
     public static boolean deleteUser(String username) {
-        return AuthDB.deleteUser(username);
+        boolean deleted = AuthDB.deleteUser(username);
+        SessionManager.invalidateUser(username, null);
+        return deleted;
     }
 
 }
@@ -0,0 +1,142 @@
+package service;
+
+import db.erpDB;
+import model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Loads the datasets a dashboard opens with concurrently, each query on its own pooled connection,
+// so the wait after login tracks the slowest query rather than the sum of all of them.
+public class DashboardPrefetch {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(5, r -> {
+        Thread t = new Thread(r, "dashboard-prefetch-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static class StudentData {
+        private final List<CatalogRow> catalog;
+        private final List<TranscriptEntry> transcript;
+        private final int courseCount;
+        private final int totalCredits;
+        private final Float averageSGPA;
+
+        StudentData(List<CatalogRow> catalog, List<TranscriptEntry> transcript,
+                    int courseCount, int totalCredits, Float averageSGPA) {
+            this.catalog = catalog;
+            this.transcript = transcript;
+            this.courseCount = courseCount;
+            this.totalCredits = totalCredits;
+            this.averageSGPA = averageSGPA;
+        }
+
+        public List<CatalogRow> getCatalog() { return catalog; }
+        public List<TranscriptEntry> getTranscript() { return transcript; }
+        public int getCourseCount() { return courseCount; }
+        public int getTotalCredits() { return totalCredits; }
+        public Float getAverageSGPA() { return averageSGPA; }
+    }
+
+    public static class InstructorData {
+        private final List<CatalogRow> teaching;
+
+        InstructorData(List<CatalogRow> teaching) {
+            this.teaching = teaching;
+        }
+
+        public List<CatalogRow> getTeaching() { return teaching; }
+    }
+
+    public static class AdminData {
+        private final List<Course> courses;
+        private final List<Instructor> instructors;
+        private final List<Student> students;
+        private final List<Section> sections;
+        private final Map<Integer, Integer> enrollmentCounts;
+        private final boolean maintenance;
+        private final AdminStatistics statistics;
+
+        AdminData(List<Course> courses, List<Instructor> instructors, List<Student> students, List<Section> sections,
+                  Map<Integer, Integer> enrollmentCounts, boolean maintenance, AdminStatistics statistics) {
+            this.courses = courses;
+            this.instructors = instructors;
+            this.students = students;
+            this.sections = sections;
+            this.enrollmentCounts = enrollmentCounts;
+            this.maintenance = maintenance;
+            this.statistics = statistics;
+        }
+
+        public List<Course> getCourses() { return courses; }
+        public List<Instructor> getInstructors() { return instructors; }
+        public List<Student> getStudents() { return students; }
+        public List<Section> getSections() { return sections; }
+        public Map<Integer, Integer> getEnrollmentCounts() { return enrollmentCounts; }
+        public boolean isMaintenance() { return maintenance; }
+        public AdminStatistics getStatistics() { return statistics; }
+    }
+
+    public static StudentData forStudent(int studentId) throws InterruptedException {
+        erpDB db = erpDB.getInstance();
+        Batch batch = new Batch();
+        Future<List<CatalogRow>> catalog = batch.submit(db::getCatalogRows);
+        Future<List<TranscriptEntry>> transcript = batch.submit(() -> db.getTranscriptSnapshot(studentId));
+        Future<Integer> courseCount = batch.submit(() -> db.getRegisteredCourseCount(studentId));
+        Future<Integer> totalCredits = batch.submit(() -> db.getTotalCreditsForStudent(studentId));
+        Future<Float> averageSGPA = batch.submit(() -> db.getAverageSGPAForStudent(studentId));
+        return new StudentData(batch.get(catalog), batch.get(transcript),
+                batch.get(courseCount), batch.get(totalCredits), batch.get(averageSGPA));
+    }
+
+    public static InstructorData forInstructor(int instructorId) {
+        // A single grouped query; nothing to fan out
+        return new InstructorData(erpDB.getInstance().getCatalogRowsForInstructor(instructorId));
+    }
+
+    public static AdminData forAdmin() throws InterruptedException {
+        erpDB db = erpDB.getInstance();
+        Batch batch = new Batch();
+        Future<List<Course>> courses = batch.submit(db::getAllCourses);
+        Future<List<Instructor>> instructors = batch.submit(db::getAllInstructors);
+        Future<List<Student>> students = batch.submit(db::getAllStudents);
+        Future<List<Section>> sections = batch.submit(db::getAllSections);
+        Future<Map<Integer, Integer>> counts = batch.submit(db::getEnrollmentCountsBySection);
+        Future<AdminStatistics> statistics = batch.submit(StatisticsService::loadAdminStatistics);
+
+        return new AdminData(batch.get(courses), batch.get(instructors), batch.get(students), batch.get(sections),
+                batch.get(counts), SettingsStore.isMaintenanceMode(), batch.get(statistics));
+    }
+
+    // Tracks the futures of one prefetch so an interrupt (login cancelled) cancels the rest
+    private static class Batch {
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        <T> Future<T> submit(Callable<T> task) {
+            Future<T> future = EXECUTOR.submit(task);
+            futures.add(future);
+            return future;
+        }
+
+        <T> T get(Future<T> future) throws InterruptedException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw e;
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Dashboard prefetch failed", e.getCause());
+            }
+        }
+    }
+}
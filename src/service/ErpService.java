@@ -7,7 +7,7 @@ public class ErpService {
     private final erpDB db;
 
     public ErpService() {
-        this.db = new erpDB();
+        this.db = erpDB.getInstance();
     }
     public static Student getStudentByEmail(String email) {
         return erpDB.getStudentByEmailStatic(email);
@@ -16,6 +16,43 @@ public class ErpService {
     public static Instructor getInstructorByEmail(String email) {
         return erpDB.getInstructorByEmailStatic(email);
     }
+
+    // Resolve the profile behind a login through the indexed user_profiles mapping.
+    // A login named after the profile's email is linked on first use; anything else must be linked explicitly.
+    public static Student findStudentForUser(String username) {
+        erpDB db = erpDB.getInstance();
+        Student student = db.getStudentForUsername(username);
+        if (student == null) {
+            student = getStudentByEmail(username);
+            if (student != null) {
+                db.linkUserProfile(username, "student", student.getId());
+            }
+        }
+        return student;
+    }
+
+    public static Instructor findInstructorForUser(String username) {
+        erpDB db = erpDB.getInstance();
+        Instructor instructor = db.getInstructorForUsername(username);
+        if (instructor == null) {
+            instructor = getInstructorByEmail(username);
+            if (instructor != null) {
+                db.linkUserProfile(username, "instructor", instructor.getId());
+            }
+        }
+        return instructor;
+    }
+
+    // Link a login to the profile with the given email, e.g. right after both were created
+    public static boolean linkStudentLogin(String username, String email) {
+        Student student = getStudentByEmail(email);
+        return student != null && erpDB.getInstance().linkUserProfile(username, "student", student.getId());
+    }
+
+    public static boolean linkInstructorLogin(String username, String email) {
+        Instructor instructor = getInstructorByEmail(email);
+        return instructor != null && erpDB.getInstance().linkUserProfile(username, "instructor", instructor.getId());
+    }
     // Sections
     public java.util.List<Section> getSectionsByCourse(int courseId) {
         return db.getSectionsByCourse(courseId);
@@ -0,0 +1,60 @@
+package service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Time-to-interactive for logins, per role: from pressing Login until the dashboard accepts input.
+public class LoginTimings {
+
+    public static class RoleStats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long authNanos;
+        private long profileNanos;
+        private long prefetchNanos;
+        private long dashboardNanos;
+
+        private synchronized void add(long auth, long profile, long prefetch, long dashboard, long total) {
+            count++;
+            totalNanos += total;
+            maxNanos = Math.max(maxNanos, total);
+            authNanos += auth;
+            profileNanos += profile;
+            prefetchNanos += prefetch;
+            dashboardNanos += dashboard;
+        }
+
+        public synchronized long getCount() { return count; }
+        public synchronized double getAvgMillis() { return avg(totalNanos); }
+        public synchronized double getMaxMillis() { return maxNanos / 1_000_000.0; }
+        public synchronized double getAvgAuthMillis() { return avg(authNanos); }
+        public synchronized double getAvgProfileMillis() { return avg(profileNanos); }
+        public synchronized double getAvgPrefetchMillis() { return avg(prefetchNanos); }
+        public synchronized double getAvgDashboardMillis() { return avg(dashboardNanos); }
+
+        private double avg(long nanos) {
+            return count == 0 ? 0.0 : nanos / 1_000_000.0 / count;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("logins=%d avg=%.0fms max=%.0fms (auth %.0fms, profile %.0fms, prefetch %.0fms, dashboard %.0fms)",
+                    count, getAvgMillis(), getMaxMillis(), getAvgAuthMillis(), getAvgProfileMillis(),
+                    getAvgPrefetchMillis(), getAvgDashboardMillis());
+        }
+    }
+
+    private static final Map<String, RoleStats> BY_ROLE = new ConcurrentHashMap<>();
+
+    public static void record(String role, long authNanos, long profileNanos, long prefetchNanos,
+                              long dashboardNanos, long totalNanos) {
+        BY_ROLE.computeIfAbsent(role.toLowerCase(), r -> new RoleStats())
+                .add(authNanos, profileNanos, prefetchNanos, dashboardNanos, totalNanos);
+    }
+
+    public static Map<String, RoleStats> getStats() {
+        return new TreeMap<>(BY_ROLE);
+    }
+}
@@ -0,0 +1,275 @@
+package service;
+
+import db.AuthDB;
+import db.ChangeBus;
+import db.ConnectionPool;
+import db.erpDB;
+import model.AccountRequest;
+import model.ChangeEvent;
+import model.ProvisioningReport;
+import util.PasswordHasher;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Creates logins and profiles in bulk. auth.db is ATTACHed to an erpDB connection so users, profiles
+// and the username mapping are written with batched inserts under a single BEGIN IMMEDIATE.
+// Rows that would violate a constraint are reported and skipped up front, so one bad row never
+// sinks the batch. Nothing is written until every accepted password is hashed; with WAL journals the
+// final commit is then atomic per database file, not across both, so a crash inside it can leave logins
+// without profiles. Hashing dominates: at PasswordUtils.ITERATIONS each hash costs roughly 0.75 s of CPU
+// on the erp.password.batchThreads pool, so 5,000 rows on two batch threads take around half an hour.
+public class ProvisioningService {
+
+    public static final String STUDENT = "student";
+    public static final String INSTRUCTOR = "instructor";
+
+    // Expected columns: username,password,name,email,program (students) or department (instructors)
+    public static List<AccountRequest> readCsv(File file, ProvisioningReport report) throws IOException {
+        List<AccountRequest> requests = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("username"))) {
+                    continue;
+                }
+                List<String> fields = splitCsvLine(line);
+                if (fields.size() < 4) {
+                    report.addError(lineNumber, fields.isEmpty() ? null : fields.get(0),
+                            "Expected username,password,name,email[,program|department]");
+                    continue;
+                }
+                requests.add(new AccountRequest(lineNumber, fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                        fields.size() > 4 ? fields.get(4) : null));
+            }
+        }
+        return requests;
+    }
+
+    public static ProvisioningReport importCsv(File file, String role) {
+        ProvisioningReport report = new ProvisioningReport();
+        List<AccountRequest> requests;
+        try {
+            requests = readCsv(file, report);
+        } catch (IOException e) {
+            e.printStackTrace();
+            report.setFailure("Could not read " + file.getName() + ": " + e.getMessage());
+            return report;
+        }
+        return provision(requests, role, report);
+    }
+
+    public static ProvisioningReport provision(List<AccountRequest> requests, String role) {
+        return provision(requests, role, new ProvisioningReport());
+    }
+
+    private static ProvisioningReport provision(List<AccountRequest> requests, String role, ProvisioningReport report) {
+        if (!STUDENT.equals(role) && !INSTRUCTOR.equals(role)) {
+            throw new IllegalArgumentException("Bulk provisioning supports students and instructors, not " + role);
+        }
+        long start = System.nanoTime();
+        boolean student = STUDENT.equals(role);
+        String profileTable = student ? "students" : "instructors";
+        String profileId = student ? "student_id" : "instructor_id";
+        String detailColumn = student ? "program" : "department";
+
+        AuthDB.init();
+        erpDB.bootstrap(); // no-op once the schema, including user_profiles, is current
+
+        // Reject bad and duplicate rows before hashing, so only rows that can be inserted pay for the KDF
+        List<AccountRequest> candidates;
+        try (Connection conn = erpDB.connect()) {
+            AuthDB.attachTo(conn);
+            try {
+                candidates = validate(conn, requests, profileTable, report);
+            } finally {
+                AuthDB.detachFrom(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            report.setFailure("Could not check the accounts: " + e.getMessage());
+            return report;
+        }
+
+        // Hash before taking the write lock; the KDF is deliberately slow and runs on the hasher pool
+        Map<AccountRequest, String> hashes = new IdentityHashMap<>();
+        List<String> passwords = new ArrayList<>();
+        for (AccountRequest request : candidates) {
+            passwords.add(request.getPassword());
+        }
+        try {
+            List<String> hashed = PasswordHasher.hashAll(passwords);
+            for (int i = 0; i < candidates.size(); i++) {
+                hashes.put(candidates.get(i), hashed.get(i));
+            }
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+            report.setFailure("Could not hash passwords: " + e.getMessage());
+            return report;
+        }
+
+        try (Connection conn = erpDB.connect()) {
+            AuthDB.attachTo(conn);
+            try (Statement tx = conn.createStatement()) {
+                tx.execute("BEGIN IMMEDIATE");
+                try {
+                    // Checked again under the lock in case another writer took a username or email meanwhile
+                    List<AccountRequest> accepted = validate(conn, candidates, profileTable, report);
+                    insertAll(conn, accepted, hashes, role, profileTable, profileId, detailColumn);
+                    tx.execute("COMMIT");
+                    report.setCreated(accepted.size());
+                    List<String> usernames = new ArrayList<>();
+                    for (AccountRequest request : accepted) {
+                        usernames.add(trim(request.getUsername()));
+                    }
+                    AuthDB.rememberUsernames(usernames);
+                    if (!accepted.isEmpty()) {
+                        // One event for the whole batch; open views reload rather than patch thousands of rows
+                        ChangeBus.publish(ChangeEvent.bulk(student
+                                ? ChangeEvent.Entity.STUDENT : ChangeEvent.Entity.INSTRUCTOR));
+                    }
+                } catch (SQLException e) {
+                    try {
+                        tx.execute("ROLLBACK");
+                    } catch (SQLException rollbackFailed) {
+                        // The transaction may still be open; don't let the pool hand it to someone else
+                        ConnectionPool.evict(conn);
+                    }
+                    throw e;
+                }
+            } finally {
+                AuthDB.detachFrom(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            report.setFailure("Provisioning rolled back: " + e.getMessage());
+        }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    // Checks every row against the existing data and the rest of the batch; rejected rows go to the report
+    private static List<AccountRequest> validate(Connection conn, List<AccountRequest> requests,
+                                                 String profileTable, ProvisioningReport report) throws SQLException {
+        Set<String> usernames = loadLowercase(conn, "SELECT username FROM auth.users");
+        Set<String> emails = loadLowercase(conn, "SELECT email FROM main." + profileTable);
+
+        List<AccountRequest> accepted = new ArrayList<>();
+        for (AccountRequest request : requests) {
+            String username = trim(request.getUsername());
+            String email = trim(request.getEmail());
+            if (username.isEmpty() || trim(request.getPassword()).isEmpty()
+                    || trim(request.getName()).isEmpty() || email.isEmpty()) {
+                report.addError(request.getLineNumber(), username, "Username, password, name and email are required");
+            } else if (!email.contains("@")) {
+                report.addError(request.getLineNumber(), username, "Invalid email " + email);
+            } else if (!usernames.add(username.toLowerCase())) {
+                report.addError(request.getLineNumber(), username, "Username already exists");
+            } else if (!emails.add(email.toLowerCase())) {
+                usernames.remove(username.toLowerCase());
+                report.addError(request.getLineNumber(), username, "Email already in use: " + email);
+            } else {
+                accepted.add(request);
+            }
+        }
+        return accepted;
+    }
+
+    private static void insertAll(Connection conn, List<AccountRequest> accepted, Map<AccountRequest, String> hashes, String role,
+                                  String profileTable, String profileId, String detailColumn) throws SQLException {
+        try (PreparedStatement users = conn.prepareStatement(
+                "INSERT INTO auth.users (username, password_hash, role) VALUES (?, ?, ?)");
+             PreparedStatement profiles = conn.prepareStatement(
+                     "INSERT INTO main." + profileTable + " (name, email, " + detailColumn + ") VALUES (?, ?, ?)");
+             PreparedStatement links = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO main.user_profiles (username, role, profile_id) "
+                             + "SELECT ?, ?, " + profileId + " FROM main." + profileTable + " WHERE email = ?")) {
+
+            for (AccountRequest request : accepted) {
+                String username = trim(request.getUsername());
+                String email = trim(request.getEmail());
+                String detail = trim(request.getDetail());
+
+                users.setString(1, username);
+                users.setString(2, hashes.get(request));
+                users.setString(3, role);
+                users.addBatch();
+
+                profiles.setString(1, trim(request.getName()));
+                profiles.setString(2, email);
+                profiles.setString(3, detail.isEmpty() ? null : detail);
+                profiles.addBatch();
+
+                links.setString(1, username);
+                links.setString(2, role);
+                links.setString(3, email);
+                links.addBatch();
+            }
+            users.executeBatch();
+            profiles.executeBatch();
+            links.executeBatch();
+        }
+    }
+
+    private static Set<String> loadLowercase(Connection conn, String sql) throws SQLException {
+        Set<String> values = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                if (rs.getString(1) != null) {
+                    values.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    // Minimal RFC 4180 splitting: commas inside double quotes, "" as an escaped quote
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+}
@@ -0,0 +1,285 @@
+package service;
+
+import db.AuthDB;
+import db.ConnectionPool;
+import db.erpDB;
+import model.AccountRequest;
+import model.SeedDataset;
+import model.Settings;
+import util.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Loads a SeedDataset with batched INSERT OR IGNOREs under one BEGIN IMMEDIATE, auth.db ATTACHed as in
+// ProvisioningService, so rerunning it never duplicates rows. Once committed, "seed.<name>" in settings
+// records the dataset version and later starts skip the load after a single settings lookup.
+public class SeedLoader {
+
+    private static final String MARKER_PREFIX = "seed.";
+
+    // "demo" (the default), "staging:<students>" or "none", e.g. from -Derp.seed=staging:50000
+    public static SeedDataset datasetFor(String spec) {
+        if (spec == null || spec.isBlank() || "demo".equalsIgnoreCase(spec)) {
+            return demoDataset();
+        }
+        if ("none".equalsIgnoreCase(spec)) {
+            return null;
+        }
+        if (spec.toLowerCase().startsWith("staging")) {
+            int colon = spec.indexOf(':');
+            return stagingDataset(colon < 0 ? 50_000 : Integer.parseInt(spec.substring(colon + 1).trim()));
+        }
+        throw new IllegalArgumentException("Unknown seed dataset " + spec);
+    }
+
+    public static SeedDataset demoDataset() {
+        return new SeedDataset("demo", 1)
+                .addStudent("stu1", "stupass", "John Doe", "stu1@iiitd.ac.in", "CSE")
+                .addStudent("stu2", "stupass", "Jane Smith", "stu2@iiitd.ac.in", "ECE")
+                .addStudent("stu3", "stupass", "Alice Johnson", "stu3@iiitd.ac.in", "CSE")
+                .addInstructor("inst1", "instpass", "Dr. Robert Brown", "inst1@iiitd.ac.in", "Computer Science")
+                .addInstructor("inst2", "instpass", "Dr. Sarah Williams", "inst2@iiitd.ac.in", "Electronics")
+                .addAdmin("admin1", "adminpass")
+                .addCourse("CS101", "Introduction to Programming", 4)
+                .addCourse("CS201", "Data Structures", 4)
+                .addCourse("CS301", "Algorithms", 3)
+                .addCourse("ECE101", "Digital Circuits", 4)
+                .addCourse("MATH101", "Linear Algebra", 3)
+                .addSection("CS101", "inst1@iiitd.ac.in", "Section A", 60, "B203", "Mon 10:00-11:00, Wed 10:00-11:00")
+                .addSection("CS101", "inst1@iiitd.ac.in", "Section B", 60, "B204", "Tue 14:00-15:00, Thu 14:00-15:00")
+                .addSection("CS201", "inst1@iiitd.ac.in", "Section A", 50, "B205", "Mon 12:00-13:00, Wed 12:00-13:00")
+                .addSection("CS301", "inst1@iiitd.ac.in", "Section A", 40, "B206", "Tue 10:00-11:00, Thu 10:00-11:00")
+                .addSection("ECE101", "inst2@iiitd.ac.in", "Section A", 55, "B207", "Mon 14:00-15:00, Wed 14:00-15:00")
+                .addSection("MATH101", "inst2@iiitd.ac.in", "Section A", 45, "B208", "Tue 12:00-13:00, Thu 12:00-13:00");
+    }
+
+    // Synthetic data for load and staging environments: one instructor per 100 students,
+    // one course per 200 students, two sections per course
+    public static SeedDataset stagingDataset(int studentCount) {
+        // Every staging login uses one of two passwords; hashing 50,000 of them separately would take hours
+        SeedDataset dataset = new SeedDataset("staging-" + studentCount, 1).sharePasswordHashes();
+        String[] programs = {"CSE", "ECE", "CSAM", "CSD"};
+        int instructorCount = Math.max(1, studentCount / 100);
+        int courseCount = Math.max(1, studentCount / 200);
+        for (int i = 1; i <= instructorCount; i++) {
+            dataset.addInstructor("sinst" + i, "instpass", "Staging Instructor " + i,
+                    "sinst" + i + "@staging.iiitd.ac.in", "Department " + (i % 8 + 1));
+        }
+        for (int i = 1; i <= studentCount; i++) {
+            dataset.addStudent("sstu" + i, "stupass", "Staging Student " + i,
+                    "sstu" + i + "@staging.iiitd.ac.in", programs[i % programs.length]);
+        }
+        for (int i = 1; i <= courseCount; i++) {
+            String code = "STG" + i;
+            dataset.addCourse(code, "Staging Course " + i, 2 + i % 3);
+            for (int s = 0; s < 2; s++) {
+                String instructor = "sinst" + ((i * 2 + s) % instructorCount + 1) + "@staging.iiitd.ac.in";
+                dataset.addSection(code, instructor, "Section " + (char) ('A' + s), 120,
+                        "S" + (100 + i), s == 0 ? "Mon 09:00-10:00, Wed 09:00-10:00" : "Tue 09:00-10:00, Thu 09:00-10:00");
+            }
+        }
+        return dataset;
+    }
+
+    public static boolean isSeeded(SeedDataset dataset) {
+        Settings marker = erpDB.getInstance().getSetting(MARKER_PREFIX + dataset.getName());
+        return marker != null && String.valueOf(dataset.getVersion()).equals(marker.getValue());
+    }
+
+    // Returns true when the dataset is present afterwards, whether loaded now or on an earlier start
+    public static boolean seed(SeedDataset dataset) {
+        if (dataset == null) {
+            return true;
+        }
+        AuthDB.init();
+        erpDB.bootstrap();
+        if (isSeeded(dataset)) {
+            return true;
+        }
+
+        // Only new logins need a hash, computed on the hasher pool before the write lock
+        Map<String, String> hashes;
+        try {
+            hashes = hashNewPasswords(dataset);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        try (Connection conn = erpDB.connect()) {
+            AuthDB.attachTo(conn);
+            try (Statement tx = conn.createStatement()) {
+                tx.execute("BEGIN IMMEDIATE");
+                try {
+                    insertUsers(conn, dataset, hashes);
+                    insertProfiles(conn, dataset.getStudents(), "student", "students", "student_id", "program");
+                    insertProfiles(conn, dataset.getInstructors(), "instructor", "instructors", "instructor_id", "department");
+                    insertCourses(conn, dataset);
+                    insertSections(conn, dataset);
+                    try (PreparedStatement marker = conn.prepareStatement(
+                            "INSERT OR REPLACE INTO main.settings (key, value) VALUES (?, ?)")) {
+                        marker.setString(1, MARKER_PREFIX + dataset.getName());
+                        marker.setString(2, String.valueOf(dataset.getVersion()));
+                        marker.executeUpdate();
+                    }
+                    tx.execute("COMMIT");
+                } catch (SQLException e) {
+                    try {
+                        tx.execute("ROLLBACK");
+                    } catch (SQLException rollbackFailed) {
+                        ConnectionPool.evict(conn);
+                    }
+                    throw e;
+                }
+            } finally {
+                AuthDB.detachFrom(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        AuthDB.rememberUsernames(hashes.keySet());
+        return true;
+    }
+
+    // username -> hash for every seeded login that auth.db doesn't have yet
+    private static Map<String, String> hashNewPasswords(SeedDataset dataset) throws Exception {
+        Set<String> existing = new HashSet<>();
+        try (Connection conn = AuthDB.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT username FROM users")) {
+            while (rs.next()) {
+                existing.add(rs.getString(1).toLowerCase());
+            }
+        }
+
+        List<AccountRequest> missing = new ArrayList<>();
+        for (AccountRequest account : allAccounts(dataset)) {
+            if (existing.add(account.getUsername().toLowerCase())) {
+                missing.add(account);
+            }
+        }
+
+        // One hash per account, each with its own salt, unless the dataset opted into sharing them
+        List<String> passwords = new ArrayList<>();
+        List<Integer> hashOf = new ArrayList<>(); // index into passwords for each missing account
+        Map<String, Integer> shared = new HashMap<>();
+        for (AccountRequest account : missing) {
+            Integer index = dataset.hasSharedPasswordHashes() ? shared.get(account.getPassword()) : null;
+            if (index == null) {
+                index = passwords.size();
+                passwords.add(account.getPassword());
+                shared.put(account.getPassword(), index);
+            }
+            hashOf.add(index);
+        }
+        List<String> hashed = PasswordHasher.hashAll(passwords);
+        Map<String, String> hashes = new HashMap<>();
+        for (int i = 0; i < missing.size(); i++) {
+            hashes.put(missing.get(i).getUsername(), hashed.get(hashOf.get(i)));
+        }
+        return hashes;
+    }
+
+    private static void insertUsers(Connection conn, SeedDataset dataset, Map<String, String> hashes) throws SQLException {
+        try (PreparedStatement users = conn.prepareStatement(
+                "INSERT OR IGNORE INTO auth.users (username, password_hash, role) VALUES (?, ?, ?)")) {
+            addUsers(users, dataset.getStudents(), "student", hashes);
+            addUsers(users, dataset.getInstructors(), "instructor", hashes);
+            addUsers(users, dataset.getAdmins(), "admin", hashes);
+            users.executeBatch();
+        }
+    }
+
+    private static void addUsers(PreparedStatement users, List<AccountRequest> accounts, String role,
+                                 Map<String, String> hashes) throws SQLException {
+        for (AccountRequest account : accounts) {
+            String hash = hashes.get(account.getUsername());
+            if (hash == null) {
+                continue; // login already exists; keep its password
+            }
+            users.setString(1, account.getUsername());
+            users.setString(2, hash);
+            users.setString(3, role);
+            users.addBatch();
+        }
+    }
+
+    // Profiles are keyed by their unique email; existing ones are left as they are
+    private static void insertProfiles(Connection conn, List<AccountRequest> accounts, String role, String profileTable,
+                                       String profileId, String detailColumn) throws SQLException {
+        try (PreparedStatement profiles = conn.prepareStatement(
+                "INSERT OR IGNORE INTO main." + profileTable + " (name, email, " + detailColumn + ") VALUES (?, ?, ?)");
+             PreparedStatement links = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO main.user_profiles (username, role, profile_id) "
+                             + "SELECT ?, ?, " + profileId + " FROM main." + profileTable + " WHERE email = ?")) {
+            for (AccountRequest account : accounts) {
+                profiles.setString(1, account.getName());
+                profiles.setString(2, account.getEmail());
+                profiles.setString(3, account.getDetail());
+                profiles.addBatch();
+
+                links.setString(1, account.getUsername());
+                links.setString(2, role);
+                links.setString(3, account.getEmail());
+                links.addBatch();
+            }
+            profiles.executeBatch();
+            links.executeBatch();
+        }
+    }
+
+    private static void insertCourses(Connection conn, SeedDataset dataset) throws SQLException {
+        try (PreparedStatement courses = conn.prepareStatement(
+                "INSERT OR IGNORE INTO main.courses (code, title, credits) VALUES (?, ?, ?)")) {
+            for (SeedDataset.CourseSeed course : dataset.getCourses()) {
+                courses.setString(1, course.getCode());
+                courses.setString(2, course.getTitle());
+                courses.setInt(3, course.getCredits());
+                courses.addBatch();
+            }
+            courses.executeBatch();
+        }
+    }
+
+    // sections has no natural key, so (course, section name) stands in for one
+    private static void insertSections(Connection conn, SeedDataset dataset) throws SQLException {
+        String sql = """
+                INSERT INTO main.sections (course_id, instructor_id, name, capacity, room, timetable)
+                SELECT c.course_id, (SELECT i.instructor_id FROM main.instructors i WHERE i.email = ?), ?, ?, ?, ?
+                FROM main.courses c
+                WHERE c.code = ?
+                  AND NOT EXISTS (SELECT 1 FROM main.sections s WHERE s.course_id = c.course_id AND s.name = ?)
+                """;
+        try (PreparedStatement sections = conn.prepareStatement(sql)) {
+            for (SeedDataset.SectionSeed section : dataset.getSections()) {
+                sections.setString(1, section.getInstructorEmail());
+                sections.setString(2, section.getName());
+                sections.setInt(3, section.getCapacity());
+                sections.setString(4, section.getRoom());
+                sections.setString(5, section.getTimetable());
+                sections.setString(6, section.getCourseCode());
+                sections.setString(7, section.getName());
+                sections.addBatch();
+            }
+            sections.executeBatch();
+        }
+    }
+
+    private static List<AccountRequest> allAccounts(SeedDataset dataset) {
+        List<AccountRequest> accounts = new ArrayList<>(dataset.getStudents());
+        accounts.addAll(dataset.getInstructors());
+        accounts.addAll(dataset.getAdmins());
+        return accounts;
+    }
+}
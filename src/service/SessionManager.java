@@ -0,0 +1,102 @@
+package service;
+
+import model.Session;
+import model.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// In-memory sessions keyed by an unguessable token. Sessions expire after a period of inactivity
+// (erp.session.ttl.minutes, default 60); validate() counts as activity, and the admin dashboard calls it on
+// user input. A background sweep drops expired ones so they cannot pile up.
+public class SessionManager {
+
+    private static final long TTL_MILLIS =
+            TimeUnit.MINUTES.toMillis(Long.getLong("erp.session.ttl.minutes", 60));
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Map<String, Session> SESSIONS = new ConcurrentHashMap<>();
+
+    static {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(SessionManager::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public static Session open(User user, Integer profileId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user.getUsername(), user.getRole(), profileId,
+                user.getPasswordHash(), System.currentTimeMillis());
+        SESSIONS.put(token, session);
+        return session;
+    }
+
+    // Returns the live session for a token and extends it, or null if unknown or expired
+    public static Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = SESSIONS.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (isExpired(session, now)) {
+            SESSIONS.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public static void close(String token) {
+        if (token != null) {
+            SESSIONS.remove(token);
+        }
+    }
+
+    // Drops every session of a user, except the one passed in (may be null)
+    public static int invalidateUser(String username, String keepToken) {
+        int removed = 0;
+        for (Session session : SESSIONS.values()) {
+            if (session.getUsername().equalsIgnoreCase(username) && !session.getToken().equals(keepToken)
+                    && SESSIONS.remove(session.getToken(), session)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public static int invalidateProfile(String role, int profileId) {
+        int removed = 0;
+        for (Session session : SESSIONS.values()) {
+            if (session.hasRole(role) && session.getProfileId() != null && session.getProfileId() == profileId
+                    && SESSIONS.remove(session.getToken(), session)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public static int getActiveCount() {
+        return SESSIONS.size();
+    }
+
+    static void evictExpired() {
+        long now = System.currentTimeMillis();
+        SESSIONS.values().removeIf(session -> isExpired(session, now));
+    }
+
+    private static boolean isExpired(Session session, long now) {
+        return now - session.getLastAccessMillis() > TTL_MILLIS;
+    }
+}
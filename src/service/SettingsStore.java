@@ -0,0 +1,149 @@
+package service;
+
+import db.erpDB;
+import model.Settings;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// The settings table as an immutable, versioned snapshot. Readers (the maintenance check on each action,
+// for one) get the cached snapshot with a volatile read; once it is older than erp.settings.maxAgeMs
+// (default 2s) the table is read again, so a toggle made by another app instance on the same erp.db shows
+// up within that window. set() writes the row and re-reads at once. Listeners hear about every key that
+// changed, on the thread that noticed it. A failed read never replaces the snapshot; the next call retries.
+public class SettingsStore {
+
+    public static final String MAINTENANCE_MODE = "maintenance_mode";
+
+    @FunctionalInterface
+    public interface Listener {
+        void settingChanged(String key, String oldValue, String newValue, Snapshot snapshot);
+    }
+
+    public static class Snapshot {
+        private final long version;
+        private final Map<String, String> values;
+
+        Snapshot(long version, Map<String, String> values) {
+            this.version = version;
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        public long getVersion() { return version; }
+        public Map<String, String> getValues() { return values; }
+
+        public String get(String key) {
+            return values.get(key);
+        }
+
+        public boolean isMaintenanceMode() {
+            return "ON".equalsIgnoreCase(values.get(MAINTENANCE_MODE));
+        }
+    }
+
+    private static final long MAX_AGE_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("erp.settings.maxAgeMs", 2000));
+
+    private static volatile Snapshot current;
+    private static volatile long readAt; // System.nanoTime() of the last successful read
+    private static final CopyOnWriteArrayList<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    public static Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot != null && System.nanoTime() - readAt < MAX_AGE_NANOS) {
+            return snapshot;
+        }
+        snapshot = refresh(false);
+        // Nothing has ever been read successfully: answer with no settings but keep nothing
+        return snapshot != null ? snapshot : new Snapshot(0, new HashMap<>());
+    }
+
+    public static String get(String key) {
+        return getSnapshot().get(key);
+    }
+
+    public static boolean isMaintenanceMode() {
+        return getSnapshot().isMaintenanceMode();
+    }
+
+    // Returns false when the write fails; a successful write is read back right away
+    public static boolean set(String key, String value) {
+        if (!erpDB.getInstance().setSetting(key, value)) {
+            return false;
+        }
+        refresh(true);
+        return true;
+    }
+
+    // Re-reads the table now, e.g. when a session starts. Returns the previous snapshot if the read fails.
+    public static Snapshot reload() {
+        return refresh(true);
+    }
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static Snapshot refresh(boolean force) {
+        Snapshot before;
+        Snapshot after;
+        synchronized (SettingsStore.class) {
+            before = current;
+            if (!force && before != null && System.nanoTime() - readAt < MAX_AGE_NANOS) {
+                return before; // another thread refreshed while this one waited
+            }
+            Map<String, String> values;
+            try {
+                values = read();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return before;
+            }
+            readAt = System.nanoTime();
+            if (before != null && before.getValues().equals(values)) {
+                return before;
+            }
+            after = new Snapshot(before == null ? 1 : before.getVersion() + 1, values);
+            current = after;
+        }
+        if (before != null) {
+            Map<String, String> keys = new HashMap<>(before.getValues());
+            keys.putAll(after.getValues());
+            for (String key : keys.keySet()) {
+                String oldValue = before.get(key);
+                String newValue = after.get(key);
+                if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+                    notifyListeners(key, oldValue, newValue, after);
+                }
+            }
+        }
+        return after;
+    }
+
+    private static Map<String, String> read() throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        for (Settings setting : erpDB.getInstance().getAllSettings()) {
+            values.put(setting.getKey(), setting.getValue());
+        }
+        return values;
+    }
+
+    private static void notifyListeners(String key, String oldValue, String newValue, Snapshot snapshot) {
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.settingChanged(key, oldValue, newValue, snapshot);
+            } catch (RuntimeException e) {
+                // One broken subscriber must not stop the rest from hearing about the change
+                e.printStackTrace();
+            }
+        }
+    }
+}
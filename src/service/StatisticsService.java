@@ -0,0 +1,138 @@
+package service;
+
+import db.erpDB;
+import model.AdminStatistics;
+import model.AdminStatistics.CourseEnrollment;
+import model.AdminStatistics.InstructorLoad;
+import model.AdminStatistics.SectionCapacity;
+import model.AdminStatistics.Totals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Enrollment figures come from the per-section seats_taken counters rather than counting enrollments.
+public class StatisticsService {
+
+    private static final String COURSE_ENROLLMENTS_SQL = """
+            SELECT c.code, c.title,
+                   COUNT(s.section_id) AS sections,
+                   COALESCE(SUM(s.seats_taken), 0) AS enrolled
+            FROM courses c
+            LEFT JOIN sections s ON s.course_id = c.course_id
+            GROUP BY c.course_id
+            ORDER BY c.code
+            """;
+
+    private static final String INSTRUCTOR_LOADS_SQL = """
+            SELECT i.name,
+                   COUNT(s.section_id) AS sections,
+                   COALESCE(SUM(s.seats_taken), 0) AS students
+            FROM instructors i
+            LEFT JOIN sections s ON s.instructor_id = i.instructor_id
+            GROUP BY i.instructor_id
+            ORDER BY i.name
+            """;
+
+    private static final String SECTION_CAPACITY_SQL = """
+            SELECT c.code, s.name, s.capacity,
+                   s.seats_taken AS enrolled
+            FROM sections s
+            LEFT JOIN courses c ON c.course_id = s.course_id
+            ORDER BY s.course_id, s.section_id
+            """;
+
+    private static final String TOTALS_SQL = """
+            SELECT (SELECT COUNT(*) FROM students) AS students,
+                   (SELECT COUNT(*) FROM instructors) AS instructors,
+                   (SELECT COUNT(*) FROM courses) AS courses,
+                   (SELECT COUNT(*) FROM sections) AS sections,
+                   (SELECT COUNT(*) FROM enrollments) AS enrollments
+            """;
+
+    // Computes every admin aggregate inside one read transaction so the panels agree with each other
+    public static AdminStatistics loadAdminStatistics() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        List<CourseEnrollment> courseEnrollments = new ArrayList<>();
+        List<InstructorLoad> instructorLoads = new ArrayList<>();
+        List<SectionCapacity> sectionCapacities = new ArrayList<>();
+        Totals totals = new Totals(0, 0, 0, 0, 0);
+
+        try (Connection conn = erpDB.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                long start = System.nanoTime();
+                try (PreparedStatement stmt = conn.prepareStatement(COURSE_ENROLLMENTS_SQL);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        courseEnrollments.add(new CourseEnrollment(
+                                rs.getString("code"),
+                                rs.getString("title"),
+                                rs.getInt("sections"),
+                                rs.getInt("enrolled")
+                        ));
+                    }
+                }
+                timings.put(AdminStatistics.COURSE_ENROLLMENTS, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                try (PreparedStatement stmt = conn.prepareStatement(INSTRUCTOR_LOADS_SQL);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        instructorLoads.add(new InstructorLoad(
+                                rs.getString("name"),
+                                rs.getInt("sections"),
+                                rs.getInt("students")
+                        ));
+                    }
+                }
+                timings.put(AdminStatistics.INSTRUCTOR_LOADS, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                try (PreparedStatement stmt = conn.prepareStatement(SECTION_CAPACITY_SQL);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        sectionCapacities.add(new SectionCapacity(
+                                rs.getString("code"),
+                                rs.getString("name") != null ? rs.getString("name") : "Section A",
+                                rs.getInt("capacity"),
+                                rs.getInt("enrolled")
+                        ));
+                    }
+                }
+                timings.put(AdminStatistics.SECTION_CAPACITY, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                try (PreparedStatement stmt = conn.prepareStatement(TOTALS_SQL);
+                     ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        totals = new Totals(
+                                rs.getInt("students"),
+                                rs.getInt("instructors"),
+                                rs.getInt("courses"),
+                                rs.getInt("sections"),
+                                rs.getInt("enrollments")
+                        );
+                    }
+                }
+                timings.put(AdminStatistics.OVERALL, System.nanoTime() - start);
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return new AdminStatistics(courseEnrollments, instructorLoads, sectionCapacities, totals, timings);
+    }
+}
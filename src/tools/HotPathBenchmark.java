@@ -0,0 +1,264 @@
+package tools;
+
+import db.AuthDB;
+import db.EntityCache;
+import db.erpDB;
+import model.Grade;
+import service.AuthMetrics;
+import service.AuthService;
+import util.PasswordHasher;
+import util.PasswordUtils;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Microbenchmarks for the data-layer, auth and grading hot paths, run against scratch SQLite files
+// seeded at realistic scale. Each benchmark gets timed warmup rounds followed by measured rounds,
+// and results are reported as mean ns/op with the spread across rounds.
+//
+// java -cp "out:lib/sqlite-jdbc.jar" tools.HotPathBenchmark --students 20000 --rounds 5
+public class HotPathBenchmark {
+
+    private static final String BENCH_USER = "bench_student";
+    private static final String BENCH_PASSWORD = "benchpass";
+
+    private int students = 5000;
+    private int courses = 200;
+    private int sectionsPerCourse = 3;
+    private int enrollmentsPerStudent = 5;
+    private int warmupRounds = 3;
+    private int rounds = 5;
+    private long roundMillis = 1000;
+    private String dataDir = "data/bench";
+
+    // Consumes benchmark results so the JIT cannot discard the measured work
+    private static volatile Object sink;
+
+    private final Map<String, double[]> results = new LinkedHashMap<>();
+
+    @FunctionalInterface
+    private interface Op {
+        Object run(int i);
+    }
+
+    public static void main(String[] args) throws Exception {
+        HotPathBenchmark bench = new HotPathBenchmark();
+        bench.parseArgs(args);
+        bench.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--students" -> students = Integer.parseInt(value);
+                case "--courses" -> courses = Integer.parseInt(value);
+                case "--sections-per-course" -> sectionsPerCourse = Integer.parseInt(value);
+                case "--enrollments" -> enrollmentsPerStudent = Integer.parseInt(value);
+                case "--warmup" -> warmupRounds = Integer.parseInt(value);
+                case "--rounds" -> rounds = Integer.parseInt(value);
+                case "--round-ms" -> roundMillis = Long.parseLong(value);
+                case "--dir" -> dataDir = value;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws SQLException {
+        File dir = new File(dataDir);
+        dir.mkdirs();
+        File erpFile = new File(dir, "bench-erp.db");
+        File authFile = new File(dir, "bench-auth.db");
+        // WAL mode leaves -wal and -shm sidecars; a stale WAL would be replayed into the fresh database
+        for (File file : new File[]{erpFile, authFile}) {
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                new File(file.getPath() + suffix).delete();
+            }
+        }
+        // Must be set before the db classes are first touched; their pools read it once
+        System.setProperty("erp.db.url", "jdbc:sqlite:" + erpFile.getPath());
+        System.setProperty("auth.db.url", "jdbc:sqlite:" + authFile.getPath());
+
+        erpDB db = erpDB.getInstance();
+        AuthDB.init();
+        long seedStart = System.nanoTime();
+        seed();
+        AuthService.register(BENCH_USER, BENCH_PASSWORD, "student");
+        System.out.printf("Seeded %d students, %d sections, %d enrollments in %.1f s%n%n",
+                students, courses * sectionsPerCourse, students * enrollmentsPerStudent,
+                (System.nanoTime() - seedStart) / 1e9);
+
+        int sectionCount = courses * sectionsPerCourse;
+        bench("erpDB.getSectionById", i -> db.getSectionById(1 + i % sectionCount));
+        bench("erpDB.getEnrollmentsByStudent", i -> db.getEnrollmentsByStudent(1 + i % students));
+        bench("erpDB.getAllSections", i -> db.getAllSections());
+        bench("AuthService.login", i -> AuthService.login(BENCH_USER, BENCH_PASSWORD));
+        bench("PasswordUtils.hashPassword", i -> PasswordUtils.hashPassword("password" + (i & 1023)));
+        String storedHash = PasswordUtils.hashPassword(BENCH_PASSWORD);
+        bench("PasswordHasher.verify", i -> PasswordHasher.verify(BENCH_PASSWORD, storedHash));
+
+        Grade[] grades = new Grade[1024];
+        Random random = new Random(7);
+        for (int i = 0; i < grades.length; i++) {
+            grades[i] = new Grade(i, i, String.format("%.2f", random.nextFloat() * 10.1f));
+        }
+        bench("Grade.getSGPA", i -> grades[i & 1023].getSGPA());
+        bench("Grade.getLetterGrade", i -> grades[i & 1023].getLetterGrade());
+
+        report();
+        erpDB.shutdown();
+        AuthDB.shutdown();
+    }
+
+    // Bulk-load the scratch database in one transaction; the public erpDB API would take minutes at this scale
+    private void seed() throws SQLException {
+        Random random = new Random(42);
+        try (Connection conn = erpDB.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO instructors (name, email, department) VALUES (?, ?, ?)")) {
+                    for (int i = 1; i <= Math.max(1, courses / 4); i++) {
+                        stmt.setString(1, "Bench Instructor " + i);
+                        stmt.setString(2, "bench.instructor" + i + "@example.test");
+                        stmt.setString(3, "Benchmarks");
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO courses (code, title, credits) VALUES (?, ?, ?)")) {
+                    for (int i = 1; i <= courses; i++) {
+                        stmt.setString(1, "BM" + i);
+                        stmt.setString(2, "Benchmark Course " + i);
+                        stmt.setInt(3, 2 + i % 3);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO sections (course_id, instructor_id, name, capacity, room, timetable) VALUES (?, ?, ?, ?, ?, ?)")) {
+                    int instructors = Math.max(1, courses / 4);
+                    for (int c = 1; c <= courses; c++) {
+                        for (int s = 0; s < sectionsPerCourse; s++) {
+                            stmt.setInt(1, c);
+                            stmt.setInt(2, 1 + c % instructors);
+                            stmt.setString(3, "Section " + (char) ('A' + s));
+                            stmt.setInt(4, 1000);
+                            stmt.setString(5, "R" + c);
+                            stmt.setString(6, "Mon 10:00-11:00, Wed 10:00-11:00");
+                            stmt.addBatch();
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO students (name, email, program) VALUES (?, ?, ?)")) {
+                    for (int i = 1; i <= students; i++) {
+                        stmt.setString(1, "Bench Student " + i);
+                        stmt.setString(2, "bench" + i + "@example.test");
+                        stmt.setString(3, i % 2 == 0 ? "CSE" : "ECE");
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT OR IGNORE INTO enrollments (student_id, section_id, grade_id) VALUES (?, ?, NULL)")) {
+                    int sections = courses * sectionsPerCourse;
+                    for (int student = 1; student <= students; student++) {
+                        for (int e = 0; e < enrollmentsPerStudent; e++) {
+                            stmt.setInt(1, student);
+                            stmt.setInt(2, 1 + random.nextInt(sections));
+                            stmt.addBatch();
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void bench(String name, Op op) {
+        for (int r = 0; r < warmupRounds; r++) {
+            measureRound(op);
+        }
+        double[] nsPerOp = new double[rounds];
+        for (int r = 0; r < rounds; r++) {
+            nsPerOp[r] = measureRound(op);
+        }
+        results.put(name, nsPerOp);
+        System.out.printf("%-32s %s%n", name, summarize(nsPerOp));
+    }
+
+    private double measureRound(Op op) {
+        long deadline = System.nanoTime() + roundMillis * 1_000_000;
+        long start = System.nanoTime();
+        int ops = 0;
+        long now;
+        do {
+            sink = op.run(ops);
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return (double) (now - start) / ops;
+    }
+
+    private void report() {
+        System.out.println();
+        System.out.println("Benchmark                        Mode  Rounds        Score      Error  Units");
+        for (Map.Entry<String, double[]> entry : results.entrySet()) {
+            double[] values = entry.getValue();
+            System.out.printf("%-32s avgt  %6d %12.1f ± %8.1f  ns/op%n",
+                    entry.getKey(), values.length, mean(values), stddev(values));
+        }
+        System.out.println();
+        System.out.println("erpDB pool  : " + erpDB.getPoolStats());
+        System.out.println("AuthDB pool : " + AuthDB.getPoolStats());
+        for (EntityCache.CacheStats cache : erpDB.getEntityCacheStats()) {
+            System.out.println("Entity cache: " + cache);
+        }
+        System.out.println("Hasher      : " + PasswordHasher.getStats());
+        System.out.println("Auth        : " + AuthMetrics.getStats(AuthMetrics.Operation.LOGIN));
+    }
+
+    private static String summarize(double[] values) {
+        List<String> parts = new ArrayList<>();
+        for (double v : values) {
+            parts.add(String.format("%.1f", v));
+        }
+        return String.format("%.1f ns/op  (rounds: %s)", mean(values), String.join(", ", parts));
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    private static double stddev(double[] values) {
+        if (values.length < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double sq = 0;
+        for (double v : values) {
+            sq += (v - mean) * (v - mean);
+        }
+        return Math.sqrt(sq / (values.length - 1));
+    }
+}
@@ -0,0 +1,196 @@
+package tools;
+
+import db.erpDB;
+import model.CatalogRow;
+import model.RegistrationOutcome;
+import model.Section;
+import model.Student;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless registration-day simulation: seeds a scratch erp database through erpDB, then has every
+// synthetic student try to register for random sections at the same moment.
+//
+// java -cp "out:lib/sqlite-jdbc.jar" tools.RegistrationLoadTest --students 5000 --sections 40 --workers 64
+public class RegistrationLoadTest {
+
+    private int students = 2000;
+    private int courses = 20;
+    private int sectionsPerCourse = 2;
+    private int capacity = 60;
+    private int attemptsPerStudent = 5;
+    private int workers = 32;
+    private long seed = 42;
+    private String dbPath = "data/loadtest-erp.db";
+
+    public static void main(String[] args) throws Exception {
+        RegistrationLoadTest test = new RegistrationLoadTest();
+        test.parseArgs(args);
+        test.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--students" -> students = Integer.parseInt(value);
+                case "--courses" -> courses = Integer.parseInt(value);
+                case "--sections-per-course" -> sectionsPerCourse = Integer.parseInt(value);
+                case "--capacity" -> capacity = Integer.parseInt(value);
+                case "--attempts" -> attemptsPerStudent = Integer.parseInt(value);
+                case "--workers" -> workers = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--db" -> dbPath = value;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws InterruptedException {
+        File dbFile = new File(dbPath);
+        // WAL mode leaves -wal and -shm sidecars next to the file; a stale WAL would be replayed into the new one
+        for (String path : new String[]{dbPath, dbPath + "-wal", dbPath + "-shm"}) {
+            File file = new File(path);
+            if (file.exists() && !file.delete()) {
+                throw new IllegalStateException("Cannot reset scratch database " + path);
+            }
+        }
+        if (dbFile.getParentFile() != null) {
+            dbFile.getParentFile().mkdirs();
+        }
+        // Must be set before erpDB is first touched; its connection pool reads it once
+        System.setProperty("erp.db.url", "jdbc:sqlite:" + dbPath);
+
+        erpDB db = erpDB.getInstance();
+        long seedStart = System.nanoTime();
+        List<Integer> studentIds = seedStudents(db);
+        List<Integer> sectionIds = seedSections(db);
+        System.out.printf("Seeded %d students and %d sections in %.1f s%n",
+                studentIds.size(), sectionIds.size(), (System.nanoTime() - seedStart) / 1e9);
+
+        Random random = new Random(seed);
+        List<int[]> plan = new ArrayList<>();
+        for (int studentId : studentIds) {
+            for (int i = 0; i < attemptsPerStudent; i++) {
+                plan.add(new int[]{studentId, sectionIds.get(random.nextInt(sectionIds.size()))});
+            }
+        }
+        Collections.shuffle(plan, random);
+
+        long[] latencies = new long[plan.size()];
+        Map<RegistrationOutcome, AtomicInteger> outcomes = new EnumMap<>(RegistrationOutcome.class);
+        for (RegistrationOutcome outcome : RegistrationOutcome.values()) {
+            outcomes.put(outcome, new AtomicInteger());
+        }
+        long busyBefore = erpDB.getBusyRetryCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            int index = i;
+            int[] attempt = plan.get(i);
+            executor.execute(() -> {
+                try {
+                    gate.await();
+                    long start = System.nanoTime();
+                    RegistrationOutcome outcome = db.registerStudentForSection(attempt[0], attempt[1]);
+                    latencies[index] = System.nanoTime() - start;
+                    outcomes.get(outcome).incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        // Registration opens: release every worker at once
+        long wallStart = System.nanoTime();
+        gate.countDown();
+        done.await();
+        long wallNanos = System.nanoTime() - wallStart;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(db, latencies, wallNanos, outcomes, erpDB.getBusyRetryCount() - busyBefore);
+        erpDB.shutdown();
+    }
+
+    private List<Integer> seedStudents(erpDB db) {
+        for (int i = 1; i <= students; i++) {
+            db.addStudent("Load Student " + i, "load" + i + "@example.test", i % 2 == 0 ? "CSE" : "ECE");
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Student student : db.getAllStudents()) {
+            ids.add(student.getId());
+        }
+        return ids;
+    }
+
+    private List<Integer> seedSections(erpDB db) {
+        db.addInstructor("Load Instructor", "load.instructor@example.test", "Load Testing");
+        Integer instructorId = db.getAllInstructors().get(0).getId();
+        for (int c = 1; c <= courses; c++) {
+            db.addCourse("LT" + c, "Load Test Course " + c, 4);
+        }
+        db.getAllCourses().forEach(course -> {
+            for (int s = 0; s < sectionsPerCourse; s++) {
+                db.addSection(course.getId(), instructorId, "Section " + (char) ('A' + s), capacity,
+                        "R" + course.getId(), "Mon 10:00-11:00");
+            }
+        });
+        List<Integer> ids = new ArrayList<>();
+        for (Section section : db.getAllSections()) {
+            ids.add(section.getId());
+        }
+        return ids;
+    }
+
+    private void report(erpDB db, long[] latencies, long wallNanos,
+                        Map<RegistrationOutcome, AtomicInteger> outcomes, long busyRetries) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+
+        int overbooked = 0;
+        for (CatalogRow row : db.getCatalogRows()) {
+            if (row.getSeatsRemaining() < 0) {
+                overbooked++;
+                System.out.printf("OVERBOOKED: %s %s has %d/%d%n",
+                        row.getCourseCode(), row.getSectionName(), row.getEnrolled(), row.getCapacity());
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Registration attempts : %d (%d workers)%n", sorted.length, workers);
+        System.out.printf("Wall time             : %.2f s%n", wallNanos / 1e9);
+        System.out.printf("Throughput            : %.1f registrations/s%n", sorted.length / (wallNanos / 1e9));
+        System.out.printf("Latency p50 / p99     : %.2f ms / %.2f ms (max %.2f ms)%n",
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6,
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+        System.out.printf("SQLITE_BUSY retries   : %d%n", busyRetries);
+        outcomes.forEach((outcome, count) -> System.out.printf("  %-20s: %d%n", outcome, count.get()));
+        System.out.printf("Overbooked sections   : %d%n", overbooked);
+        System.out.println("Connection pool       : " + erpDB.getPoolStats());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -1,8 +1,17 @@
 package ui;
 
+import db.ChangeBus;
 import db.erpDB;
 import model.*;
+import db.AuthDB;
+import service.AuthMetrics;
 import service.AuthService;
+import service.DashboardPrefetch;
+import service.LoginTimings;
+import service.ProvisioningService;
+import service.SettingsStore;
+import service.StatisticsService;
+import util.PasswordHasher;
 import util.ThemeManager;
 
 import javax.imageio.ImageIO;
@@ -18,16 +27,22 @@ import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumn;
 import java.awt.*;
+import java.awt.event.AWTEventListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 
 public class AdminDashboard extends JFrame {
     private static final Color BG_LIGHT = new Color(240, 242, 245);
@@ -35,17 +50,42 @@ public class AdminDashboard extends JFrame {
     private static final Color BUTTON_DEFAULT = new Color(235, 238, 243);
     private static final Color BUTTON_TEXT = new Color(60, 60, 60);
     private static final String[] NAV_ITEMS = {
-            "Dashboard", "Courses", "Instructors", "Sections", "Students", "Statistics"
+            "Dashboard", "Courses", "Instructors", "Sections", "Students", "Statistics", "Auth Metrics"
     };
 
     private final User user;
     private final erpDB erpDb;
+    private final SettingsStore.Listener settingsListener = this::onSettingChanged;
+    private final ChangeBus.Listener changeListener = this::onDataChanged;
+    private final AWTEventListener activityListener = this::onUserActivity;
+    private DashboardPrefetch.AdminData prefetched; // only set while the frame is being built
 
     private JTable courseTable;
     private JTable studentTable;
     private JTable instructorTable;
     private JTable sectionsTable;
 
+    // Tables keep their rows in the order of the getAll* queries, so patched rows land where a reload puts them
+    private static final Comparator<Course> COURSE_ORDER =
+            Comparator.comparing(Course::getCode, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<Student> STUDENT_ORDER =
+            Comparator.comparing(Student::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<Instructor> INSTRUCTOR_ORDER =
+            Comparator.comparing(Instructor::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<Section> SECTION_ORDER =
+            Comparator.comparingInt(Section::getCourseId).thenComparingInt(Section::getId);
+
+    private final EntityTableModel<Course> courseModel = new EntityTableModel<>(
+            new String[]{"ID", "Code", "Title", "Credits", "Expand"}, Course::getId, AdminDashboard::courseValues, 4);
+    private final EntityTableModel<Student> studentModel = new EntityTableModel<>(
+            new String[]{"ID", "Name", "Email", "Program", "Expand"}, Student::getId, AdminDashboard::studentValues, 4);
+    private final EntityTableModel<Instructor> instructorModel = new EntityTableModel<>(
+            new String[]{"ID", "Name", "Email", "Department", "Expand"}, Instructor::getId,
+            AdminDashboard::instructorValues, 4);
+    private final EntityTableModel<Section> sectionModel = new EntityTableModel<>(
+            new String[]{"Section ID", "Course Code", "Section", "Instructor", "Capacity", "Students", "Room", "Timetable"},
+            Section::getId, this::sectionValues);
+
     private JLabel studentCountLabel;
     private JLabel instructorCountLabel;
     private JLabel courseCountLabel;
@@ -60,13 +100,59 @@ public class AdminDashboard extends JFrame {
     private final Map<String, NavigationButton> navButtons = new LinkedHashMap<>();
 
     public AdminDashboard(User user) {
+        this(user, null);
+    }
+
+    // Used by the login pipeline, which prefetches the tables and statistics off the event thread
+    public AdminDashboard(User user, DashboardPrefetch.AdminData prefetched) {
         this.user = user;
-        this.erpDb = new erpDB();
+        this.erpDb = erpDB.getInstance();
+        this.prefetched = prefetched;
         ThemeManager.loadDarkModePreference();
         loadHeaderBackground();
         initUI();
-        refreshAllData();
+        if (prefetched != null) {
+            showPrefetched(prefetched);
+        } else {
+            refreshAllData();
+        }
+        this.prefetched = null;
         applyTheme();
+        SettingsStore.addListener(settingsListener);
+        ChangeBus.subscribe(changeListener);
+        Toolkit.getDefaultToolkit().addAWTEventListener(activityListener,
+                AWTEvent.MOUSE_EVENT_MASK | AWTEvent.KEY_EVENT_MASK);
+    }
+
+    @Override
+    public void dispose() {
+        Toolkit.getDefaultToolkit().removeAWTEventListener(activityListener);
+        SettingsStore.removeListener(settingsListener);
+        ChangeBus.unsubscribe(changeListener);
+        super.dispose();
+    }
+
+    // Clicks and keystrokes in this window or its dialogs keep the session alive, so the idle timeout only
+    // fires for an admin who actually walked away. An already expired session is not revived.
+    private void onUserActivity(AWTEvent event) {
+        if (!(event.getSource() instanceof Component source)) {
+            return;
+        }
+        Window window = source instanceof Window w ? w : SwingUtilities.getWindowAncestor(source);
+        while (window != null && window != this) {
+            window = window.getOwner();
+        }
+        if (window == this) {
+            AuthService.getSession(user);
+        }
+    }
+
+    // Keeps the toggle in step when another admin window flips maintenance mode
+    private void onSettingChanged(String key, String oldValue, String newValue, SettingsStore.Snapshot snapshot) {
+        if (SettingsStore.MAINTENANCE_MODE.equals(key)) {
+            boolean maintenance = snapshot.isMaintenanceMode();
+            SwingUtilities.invokeLater(() -> showMaintenance(maintenance));
+        }
     }
 
     private void loadHeaderBackground() {
@@ -107,6 +193,7 @@ public class AdminDashboard extends JFrame {
         contentPanel.add(createSectionsPanel(), "Sections");
         contentPanel.add(createStudentsPanel(), "Students");
         contentPanel.add(createStatisticsPanel(), "Statistics");
+        contentPanel.add(createAuthMetricsPanel(), "Auth Metrics");
         add(contentPanel, BorderLayout.CENTER);
 
         setActiveSection("Dashboard");
@@ -198,6 +285,7 @@ public class AdminDashboard extends JFrame {
 
         JButton logoutBtn = createButton("Logout", new Color(220, 53, 69));
         logoutBtn.addActionListener(e -> {
+            AuthService.logout(user);
             dispose();
             new LoginScreen().setVisible(true);
         });
@@ -327,13 +415,7 @@ public class AdminDashboard extends JFrame {
     }
 
     private JPanel createCoursesPanel() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"ID", "Code", "Title", "Credits", "Expand"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 4;
-            }
-        };
-        courseTable = new JTable(model);
+        courseTable = new JTable(courseModel);
         styleTable(courseTable);
         courseTable.setRowHeight(34);
         attachButtonColumn(courseTable, 4, "Expand", this::handleCourseExpandAction);
@@ -360,13 +442,7 @@ public class AdminDashboard extends JFrame {
     }
 
     private JPanel createStudentsPanel() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"ID", "Name", "Email", "Program", "Expand"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 4;
-            }
-        };
-        studentTable = new JTable(model);
+        studentTable = new JTable(studentModel);
         styleTable(studentTable);
         studentTable.setRowHeight(34);
         attachButtonColumn(studentTable, 4, "Expand", this::handleStudentExpandAction);
@@ -374,23 +450,24 @@ public class AdminDashboard extends JFrame {
         JButton addBtn = createButton("Add Student");
         addBtn.addActionListener(e -> openStudentRegistrationDialog());
 
+        JButton importBtn = createButton("Import CSV");
+        importBtn.addActionListener(e -> importAccountsFromCsv(ProvisioningService.STUDENT));
+
         JButton deleteBtn = createButton("Delete Selected");
         deleteBtn.addActionListener(e -> deleteStudent());
 
-        JPanel actions = createActionBar(addBtn, deleteBtn);
+        JPanel actions = createActionBar(addBtn, importBtn, deleteBtn);
         return buildModulePanel(actions, studentTable);
     }
 
     private void handleStudentExpandAction(int viewRow) {
-        List<Student> students = (List<Student>) studentTable.getClientProperty("students");
-        if (students == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = studentTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= students.size()) {
-            return;
+        Student student = studentModel.getRow(studentTable.convertRowIndexToModel(viewRow));
+        if (student != null) {
+            openStudentDetailsDialog(student);
         }
-        openStudentDetailsDialog(students.get(modelRow));
     }
 
     private void openStudentDetailsDialog(Student student) {
@@ -449,11 +526,10 @@ public class AdminDashboard extends JFrame {
 
         JButton deleteBtn = createButton("Delete Student", new Color(220, 53, 69), Color.WHITE);
         deleteBtn.addActionListener(e -> {
-            if (confirmAction("Delete student " + student.getName() + "?")) {
+            if (ensureAdminSession() && confirmAction("Delete student " + student.getName() + "?")) {
                 if (erpDb.deleteStudent(student.getId())) {
+                    AuthService.endProfileSessions("student", student.getId());
                     showMessage("Student deleted.", MessageType.SUCCESS);
-                    loadStudents();
-                    refreshStats();
                     dialog.dispose();
                 } else {
                     showMessage("Unable to delete student.", MessageType.ERROR);
@@ -477,13 +553,7 @@ public class AdminDashboard extends JFrame {
     }
 
     private JPanel createInstructorsPanel() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"ID", "Name", "Email", "Department", "Expand"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 4;
-            }
-        };
-        instructorTable = new JTable(model);
+        instructorTable = new JTable(instructorModel);
         styleTable(instructorTable);
         instructorTable.setRowHeight(34);
         attachButtonColumn(instructorTable, 4, "Expand", this::handleInstructorExpandAction);
@@ -491,20 +561,21 @@ public class AdminDashboard extends JFrame {
         JButton addBtn = createButton("Add Instructor");
         addBtn.addActionListener(e -> openInstructorRegistrationDialog());
 
-        JPanel actions = createActionBar(addBtn);
+        JButton importBtn = createButton("Import CSV");
+        importBtn.addActionListener(e -> importAccountsFromCsv(ProvisioningService.INSTRUCTOR));
+
+        JPanel actions = createActionBar(addBtn, importBtn);
         return buildModulePanel(actions, instructorTable);
     }
 
     private void handleInstructorExpandAction(int viewRow) {
-        List<Instructor> instructors = (List<Instructor>) instructorTable.getClientProperty("instructors");
-        if (instructors == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = instructorTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= instructors.size()) {
-            return;
+        Instructor instructor = instructorModel.getRow(instructorTable.convertRowIndexToModel(viewRow));
+        if (instructor != null) {
+            openInstructorDetailsDialog(instructor);
         }
-        openInstructorDetailsDialog(instructors.get(modelRow));
     }
 
     private void openInstructorDetailsDialog(Instructor instructor) {
@@ -547,8 +618,6 @@ public class AdminDashboard extends JFrame {
             String newDept = deptField.getText().trim();
             if (erpDb.updateInstructor(instructor.getId(), instructor.getName(), instructor.getEmail(), newDept)) {
                 showMessage("Department updated.", MessageType.SUCCESS);
-                loadInstructors();
-                refreshStats();
             } else {
                 showMessage("Unable to update department.", MessageType.ERROR);
             }
@@ -556,11 +625,10 @@ public class AdminDashboard extends JFrame {
 
         JButton deleteBtn = createButton("Delete Instructor", new Color(220, 53, 69), Color.WHITE);
         deleteBtn.addActionListener(e -> {
-            if (confirmAction("Delete instructor " + instructor.getName() + "?")) {
+            if (ensureAdminSession() && confirmAction("Delete instructor " + instructor.getName() + "?")) {
                 if (erpDb.deleteInstructor(instructor.getId())) {
+                    AuthService.endProfileSessions("instructor", instructor.getId());
                     showMessage("Instructor deleted.", MessageType.SUCCESS);
-                    loadInstructors();
-                    refreshStats();
                     dialog.dispose();
                 } else {
                     showMessage("Unable to delete instructor.", MessageType.ERROR);
@@ -584,20 +652,17 @@ public class AdminDashboard extends JFrame {
     }
 
     private JPanel createSectionsPanel() {
-        sectionsTable = buildTable(new String[]{"Section ID", "Course Code", "Section", "Instructor", "Capacity", "Students", "Room", "Timetable"});
+        sectionsTable = new JTable(sectionModel);
+        styleTable(sectionsTable);
 
         JButton addBtn = createButton("Add Section");
-        addBtn.addActionListener(e -> {
-            if (openSectionForm(null, null)) {
-                loadSections();
-            }
-        });
+        addBtn.addActionListener(e -> openSectionForm(null, null));
 
         JButton editBtn = createButton("Edit Selected");
         editBtn.addActionListener(e -> {
             Section section = getSelectedSection();
-            if (section != null && openSectionForm(section, null)) {
-                loadSections();
+            if (section != null) {
+                openSectionForm(section, null);
             }
         });
 
@@ -625,10 +690,47 @@ public class AdminDashboard extends JFrame {
             }
         });
 
-        JPanel actions = createActionBar(addBtn, editBtn, assignBtn, viewStudentsBtn, deleteBtn);
+        JButton verifySeatsBtn = createButton("Verify Seat Counts");
+        verifySeatsBtn.addActionListener(e -> verifySeatCounts());
+
+        JPanel actions = createActionBar(addBtn, editBtn, assignBtn, viewStudentsBtn, deleteBtn, verifySeatsBtn);
         return buildModulePanel(actions, sectionsTable);
     }
 
+    // Recounts enrollments per section and repairs any seats_taken counter that drifted
+    private void verifySeatCounts() {
+        if (!ensureAdminSession()) {
+            return;
+        }
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return erpDb.reconcileSeatCounts(true);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                int repaired;
+                try {
+                    repaired = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    repaired = -1;
+                }
+                if (repaired < 0) {
+                    showMessage("Could not verify seat counts.", MessageType.ERROR);
+                } else if (repaired == 0) {
+                    showMessage("All section seat counts match their enrollments.", MessageType.SUCCESS);
+                } else {
+                    showMessage("Repaired seat counts for " + repaired + " section(s).", MessageType.INFO);
+                    loadSections();
+                }
+            }
+        }.execute();
+    }
+
     private JPanel createStatisticsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(ThemeManager.getBackgroundColor());
@@ -637,95 +739,81 @@ public class AdminDashboard extends JFrame {
         JPanel content = new JPanel(new GridLayout(2, 2, 20, 20));
         content.setOpaque(false);
 
-        content.add(createCourseEnrollmentStats());
-        content.add(createInstructorLoadStats());
-        content.add(createSectionCapacityStats());
-        content.add(createOverallStats());
+        AdminStatistics stats = prefetched != null ? prefetched.getStatistics() : StatisticsService.loadAdminStatistics();
+        content.add(createCourseEnrollmentStats(stats));
+        content.add(createInstructorLoadStats(stats));
+        content.add(createSectionCapacityStats(stats));
+        content.add(createOverallStats(stats));
 
         panel.add(content, BorderLayout.CENTER);
         return panel;
     }
 
-    private JPanel createCourseEnrollmentStats() {
-        RoundedPanel card = new RoundedPanel(28, ThemeManager.getPanelColor());
-        card.setLayout(new BorderLayout());
-        card.setBorder(new EmptyBorder(20, 20, 20, 20));
-
-        JLabel title = new JLabel("Course Enrollments");
+    private JLabel createStatsTitle(AdminStatistics stats, String panelName) {
+        JLabel title = new JLabel(panelName);
         title.setFont(new Font("Segoe UI", Font.BOLD, 16));
         title.setForeground(new Color(50, 50, 50));
         title.setBorder(new EmptyBorder(0, 0, 15, 0));
+        title.setToolTipText(String.format("Computed in %.1f ms", stats.getPanelMillis(panelName)));
+        return title;
+    }
+
+    private JPanel createCourseEnrollmentStats(AdminStatistics stats) {
+        RoundedPanel card = new RoundedPanel(28, ThemeManager.getPanelColor());
+        card.setLayout(new BorderLayout());
+        card.setBorder(new EmptyBorder(20, 20, 20, 20));
 
         JTable table = buildTable(new String[]{"Course", "Sections", "Enrolled"});
-        loadCourseEnrollmentStats(table);
+        loadCourseEnrollmentStats(table, stats);
 
-        card.add(title, BorderLayout.NORTH);
+        card.add(createStatsTitle(stats, AdminStatistics.COURSE_ENROLLMENTS), BorderLayout.NORTH);
         card.add(new JScrollPane(table), BorderLayout.CENTER);
         return card;
     }
 
-    private JPanel createInstructorLoadStats() {
+    private JPanel createInstructorLoadStats(AdminStatistics stats) {
         RoundedPanel card = new RoundedPanel(28, ThemeManager.getPanelColor());
         card.setLayout(new BorderLayout());
         card.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        JLabel title = new JLabel("Instructor Loads");
-        title.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        title.setForeground(new Color(50, 50, 50));
-        title.setBorder(new EmptyBorder(0, 0, 15, 0));
-
         JTable table = buildTable(new String[]{"Instructor", "Sections", "Students"});
-        loadInstructorLoadStats(table);
+        loadInstructorLoadStats(table, stats);
 
-        card.add(title, BorderLayout.NORTH);
+        card.add(createStatsTitle(stats, AdminStatistics.INSTRUCTOR_LOADS), BorderLayout.NORTH);
         card.add(new JScrollPane(table), BorderLayout.CENTER);
         return card;
     }
 
-    private JPanel createSectionCapacityStats() {
+    private JPanel createSectionCapacityStats(AdminStatistics stats) {
         RoundedPanel card = new RoundedPanel(28, ThemeManager.getPanelColor());
         card.setLayout(new BorderLayout());
         card.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        JLabel title = new JLabel("Section Capacity");
-        title.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        title.setForeground(new Color(50, 50, 50));
-        title.setBorder(new EmptyBorder(0, 0, 15, 0));
-
         JTable table = buildTable(new String[]{"Section", "Capacity", "Enrolled", "Available"});
-        loadSectionCapacityStats(table);
+        loadSectionCapacityStats(table, stats);
 
-        card.add(title, BorderLayout.NORTH);
+        card.add(createStatsTitle(stats, AdminStatistics.SECTION_CAPACITY), BorderLayout.NORTH);
         card.add(new JScrollPane(table), BorderLayout.CENTER);
         return card;
     }
 
-    private JPanel createOverallStats() {
+    private JPanel createOverallStats(AdminStatistics stats) {
         RoundedPanel card = new RoundedPanel(28, ThemeManager.getPanelColor());
         card.setLayout(new BorderLayout());
         card.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        JLabel title = new JLabel("Overall Statistics");
-        title.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        title.setForeground(new Color(50, 50, 50));
-        title.setBorder(new EmptyBorder(0, 0, 15, 0));
+        AdminStatistics.Totals totals = stats.getTotals();
 
-        int totalStudents = erpDb.getStudentCount();
-        int totalInstructors = erpDb.getInstructorCount();
-        int totalCourses = erpDb.getCourseCount();
-        int totalSections = erpDb.getAllSections().size();
-        int totalEnrollments = erpDb.getAllEnrollments().size();
+        JPanel rows = new JPanel(new GridLayout(5, 1, 0, 10));
+        rows.setOpaque(false);
+        rows.add(createStatRow("Total Students", String.valueOf(totals.getStudents())));
+        rows.add(createStatRow("Total Instructors", String.valueOf(totals.getInstructors())));
+        rows.add(createStatRow("Total Courses", String.valueOf(totals.getCourses())));
+        rows.add(createStatRow("Total Sections", String.valueOf(totals.getSections())));
+        rows.add(createStatRow("Total Enrollments", String.valueOf(totals.getEnrollments())));
 
-        JPanel stats = new JPanel(new GridLayout(5, 1, 0, 10));
-        stats.setOpaque(false);
-        stats.add(createStatRow("Total Students", String.valueOf(totalStudents)));
-        stats.add(createStatRow("Total Instructors", String.valueOf(totalInstructors)));
-        stats.add(createStatRow("Total Courses", String.valueOf(totalCourses)));
-        stats.add(createStatRow("Total Sections", String.valueOf(totalSections)));
-        stats.add(createStatRow("Total Enrollments", String.valueOf(totalEnrollments)));
-
-        card.add(title, BorderLayout.NORTH);
-        card.add(stats, BorderLayout.CENTER);
+        card.add(createStatsTitle(stats, AdminStatistics.OVERALL), BorderLayout.NORTH);
+        card.add(rows, BorderLayout.CENTER);
         return card;
     }
 
@@ -743,59 +831,176 @@ public class AdminDashboard extends JFrame {
         return row;
     }
 
-    private void loadCourseEnrollmentStats(JTable table) {
+    private void loadCourseEnrollmentStats(JTable table, AdminStatistics stats) {
         DefaultTableModel model = (DefaultTableModel) table.getModel();
         model.setRowCount(0);
-        List<Course> courses = erpDb.getAllCourses();
-        for (Course course : courses) {
-            List<Section> sections = erpDb.getSectionsByCourse(course.getId());
-            int totalEnrolled = 0;
-            for (Section section : sections) {
-                totalEnrolled += erpDb.getEnrollmentCountForSection(section.getId());
-            }
+        for (AdminStatistics.CourseEnrollment row : stats.getCourseEnrollments()) {
             model.addRow(new Object[]{
-                    course.getCode() + " • " + course.getTitle(),
-                    sections.size(),
-                    totalEnrolled
+                    row.getCode() + " • " + row.getTitle(),
+                    row.getSections(),
+                    row.getEnrolled()
             });
         }
     }
 
-    private void loadInstructorLoadStats(JTable table) {
+    private void loadInstructorLoadStats(JTable table, AdminStatistics stats) {
         DefaultTableModel model = (DefaultTableModel) table.getModel();
         model.setRowCount(0);
-        List<Instructor> instructors = erpDb.getAllInstructors();
-        for (Instructor instructor : instructors) {
-            List<Section> sections = erpDb.getAllSections().stream()
-                    .filter(s -> s.getInstructorId() != null && s.getInstructorId().equals(instructor.getId()))
-                    .toList();
-            int totalStudents = 0;
-            for (Section section : sections) {
-                totalStudents += erpDb.getEnrollmentCountForSection(section.getId());
-            }
+        for (AdminStatistics.InstructorLoad row : stats.getInstructorLoads()) {
             model.addRow(new Object[]{
-                    instructor.getName(),
-                    sections.size(),
-                    totalStudents
+                    row.getName(),
+                    row.getSections(),
+                    row.getStudents()
             });
         }
     }
 
-    private void loadSectionCapacityStats(JTable table) {
+    private void loadSectionCapacityStats(JTable table, AdminStatistics stats) {
         DefaultTableModel model = (DefaultTableModel) table.getModel();
         model.setRowCount(0);
-        List<Section> sections = erpDb.getAllSections();
-        for (Section section : sections) {
-            Course course = erpDb.getCourseById(section.getCourseId());
-            int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-            int available = section.getCapacity() - enrolled;
+        for (AdminStatistics.SectionCapacity row : stats.getSectionCapacities()) {
             model.addRow(new Object[]{
-                    (course != null ? course.getCode() : "?") + " • " + section.getName(),
-                    section.getCapacity(),
-                    enrolled,
-                    available
+                    (row.getCourseCode() != null ? row.getCourseCode() : "?") + " • " + row.getSectionName(),
+                    row.getCapacity(),
+                    row.getEnrolled(),
+                    row.getAvailable()
+            });
+        }
+    }
+
+    // In-memory counters only, so refreshing on the EDT is cheap
+    private JPanel createAuthMetricsPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(ThemeManager.getBackgroundColor());
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JTable operationsTable = buildTable(new String[]{
+                "Operation", "Calls", "OK", "Failed", "Errors", "Avg ms", "p50 ms", "p95 ms", "p99 ms", "Max ms",
+                "DB ms", "Hash ms"});
+        String[] histogramHeaders = new String[AuthMetrics.Operation.values().length + 1];
+        histogramHeaders[0] = "Latency";
+        for (AuthMetrics.Operation operation : AuthMetrics.Operation.values()) {
+            histogramHeaders[operation.ordinal() + 1] = operationLabel(operation);
+        }
+        JTable histogramTable = buildTable(histogramHeaders);
+
+        JPanel resourceRows = new JPanel(new GridLayout(0, 1, 0, 10));
+        resourceRows.setOpaque(false);
+
+        JButton refreshBtn = createButton("Refresh");
+        JButton resetBtn = createButton("Reset Counters");
+        refreshBtn.addActionListener(e -> loadAuthMetrics(operationsTable, histogramTable, resourceRows));
+        resetBtn.addActionListener(e -> {
+            if (!ensureAdminSession()) {
+                return;
+            }
+            AuthMetrics.reset();
+            loadAuthMetrics(operationsTable, histogramTable, resourceRows);
+        });
+
+        RoundedPanel operationsCard = new RoundedPanel(28, ThemeManager.getPanelColor());
+        operationsCard.setLayout(new BorderLayout(0, 12));
+        operationsCard.setBorder(new EmptyBorder(20, 20, 20, 20));
+        operationsCard.add(createActionBar(refreshBtn, resetBtn), BorderLayout.NORTH);
+        JScrollPane operationsScroll = new JScrollPane(operationsTable);
+        operationsScroll.setBorder(BorderFactory.createEmptyBorder());
+        operationsCard.add(operationsScroll, BorderLayout.CENTER);
+
+        RoundedPanel histogramCard = new RoundedPanel(28, ThemeManager.getPanelColor());
+        histogramCard.setLayout(new BorderLayout());
+        histogramCard.setBorder(new EmptyBorder(20, 20, 20, 20));
+        histogramCard.add(createCardTitle("Latency Histogram"), BorderLayout.NORTH);
+        histogramCard.add(new JScrollPane(histogramTable), BorderLayout.CENTER);
+
+        RoundedPanel resourcesCard = new RoundedPanel(28, ThemeManager.getPanelColor());
+        resourcesCard.setLayout(new BorderLayout());
+        resourcesCard.setBorder(new EmptyBorder(20, 20, 20, 20));
+        resourcesCard.add(createCardTitle("Hashing and auth.db"), BorderLayout.NORTH);
+        resourcesCard.add(new JScrollPane(resourceRows), BorderLayout.CENTER);
+
+        JPanel lower = new JPanel(new GridLayout(1, 2, 20, 20));
+        lower.setOpaque(false);
+        lower.add(histogramCard);
+        lower.add(resourcesCard);
+
+        JPanel content = new JPanel(new GridLayout(2, 1, 20, 20));
+        content.setOpaque(false);
+        content.add(operationsCard);
+        content.add(lower);
+
+        loadAuthMetrics(operationsTable, histogramTable, resourceRows);
+        panel.add(content, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private JLabel createCardTitle(String text) {
+        JLabel title = new JLabel(text);
+        title.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        title.setForeground(new Color(50, 50, 50));
+        title.setBorder(new EmptyBorder(0, 0, 15, 0));
+        return title;
+    }
+
+    private String operationLabel(AuthMetrics.Operation operation) {
+        if (operation == AuthMetrics.Operation.LOGIN) {
+            return "Login";
+        } else if (operation == AuthMetrics.Operation.REGISTER) {
+            return "Register";
+        }
+        return "Change Password";
+    }
+
+    private void loadAuthMetrics(JTable operationsTable, JTable histogramTable, JPanel resourceRows) {
+        Map<AuthMetrics.Operation, AuthMetrics.OperationStats> snapshot = AuthMetrics.getSnapshot();
+
+        DefaultTableModel operations = (DefaultTableModel) operationsTable.getModel();
+        operations.setRowCount(0);
+        for (AuthMetrics.OperationStats stats : snapshot.values()) {
+            operations.addRow(new Object[]{
+                    operationLabel(stats.getOperation()),
+                    stats.getCount(),
+                    stats.getSuccesses(),
+                    stats.getFailures(),
+                    stats.getErrors(),
+                    String.format("%.1f", stats.getAvgMillis()),
+                    String.format("%.0f", stats.getPercentileMillis(50)),
+                    String.format("%.0f", stats.getPercentileMillis(95)),
+                    String.format("%.0f", stats.getPercentileMillis(99)),
+                    String.format("%.1f", stats.getMaxMillis()),
+                    String.format("%.1f", stats.getAvgDbMillis()),
+                    String.format("%.1f", stats.getAvgHashMillis())
             });
         }
+
+        DefaultTableModel histogram = (DefaultTableModel) histogramTable.getModel();
+        histogram.setRowCount(0);
+        long[] bounds = AuthMetrics.getBucketBoundsMillis();
+        for (int i = 0; i <= bounds.length; i++) {
+            Object[] row = new Object[snapshot.size() + 1];
+            row[0] = i < bounds.length ? "≤ " + bounds[i] + " ms" : "> " + bounds[bounds.length - 1] + " ms";
+            for (AuthMetrics.OperationStats stats : snapshot.values()) {
+                row[stats.getOperation().ordinal() + 1] = stats.getBucketCounts()[i];
+            }
+            histogram.addRow(row);
+        }
+
+        PasswordHasher.HashingStats hashing = PasswordHasher.getStats();
+        resourceRows.removeAll();
+        resourceRows.add(createStatRow("Hasher threads busy", hashing.getActive() + " / " + hashing.getThreads()));
+        resourceRows.add(createStatRow("Hasher queue", hashing.getQueued() + " / " + hashing.getQueueCapacity()));
+        resourceRows.add(createStatRow("Hashes completed / rejected",
+                hashing.getCompleted() + " / " + hashing.getRejected()));
+        resourceRows.add(createStatRow("Avg hash wait / work", String.format("%.1f ms / %.1f ms",
+                hashing.getAvgQueueNanos() / 1e6, hashing.getAvgHashNanos() / 1e6)));
+        resourceRows.add(createStatRow("auth.db pool", AuthDB.getPoolStats().toString()));
+        resourceRows.add(createStatRow("Username filter", AuthDB.getUsernameFilterStats()));
+        for (Map.Entry<String, LoginTimings.RoleStats> entry : LoginTimings.getStats().entrySet()) {
+            LoginTimings.RoleStats role = entry.getValue();
+            resourceRows.add(createStatRow("Time to dashboard (" + entry.getKey() + ")",
+                    String.format("%d logins, avg %.0f ms", role.getCount(), role.getAvgMillis())));
+        }
+        resourceRows.revalidate();
+        resourceRows.repaint();
     }
 
     private JPanel buildModulePanel(JPanel actions, JTable table) {
@@ -914,88 +1119,221 @@ public class AdminDashboard extends JFrame {
         refreshStats();
     }
 
+    private void showPrefetched(DashboardPrefetch.AdminData data) {
+        showCourses(data.getCourses());
+        showInstructors(data.getInstructors());
+        showSections(data.getSections(), data.getCourses(), data.getInstructors(), data.getEnrollmentCounts());
+        showStudents(data.getStudents());
+        showStats(data.getStudents().size(), data.getInstructors().size(), data.getCourses().size(), data.isMaintenance());
+    }
+
     private void loadCourses() {
-        DefaultTableModel model = (DefaultTableModel) courseTable.getModel();
-        model.setRowCount(0);
-        List<Course> courses = erpDb.getAllCourses();
-        courseTable.putClientProperty("courses", courses);
-        for (Course course : courses) {
-            model.addRow(new Object[]{
-                    course.getId(),
-                    course.getCode(),
-                    course.getTitle(),
-                    course.getCredits(),
-                    "Expand"
-            });
-        }
+        showCourses(erpDb.getAllCourses());
+    }
+
+    private void showCourses(List<Course> courses) {
+        courseModel.setRows(courses);
+    }
+
+    private static Object[] courseValues(Course course) {
+        return new Object[]{
+                course.getId(),
+                course.getCode(),
+                course.getTitle(),
+                course.getCredits(),
+                "Expand"
+        };
     }
 
 
     private void loadStudents() {
-        DefaultTableModel model = (DefaultTableModel) studentTable.getModel();
-        model.setRowCount(0);
-        List<Student> students = erpDb.getAllStudents();
-        studentTable.putClientProperty("students", students);
-        for (Student student : students) {
-            model.addRow(new Object[]{
-                    student.getId(),
-                    student.getName(),
-                    student.getEmail(),
-                    student.getProgram() != null ? student.getProgram() : "-",
-                    "Expand"
-            });
-        }
+        showStudents(erpDb.getAllStudents());
+    }
+
+    private void showStudents(List<Student> students) {
+        studentModel.setRows(students);
+    }
+
+    private static Object[] studentValues(Student student) {
+        return new Object[]{
+                student.getId(),
+                student.getName(),
+                student.getEmail(),
+                student.getProgram() != null ? student.getProgram() : "-",
+                "Expand"
+        };
     }
 
     private void loadInstructors() {
-        DefaultTableModel model = (DefaultTableModel) instructorTable.getModel();
-        model.setRowCount(0);
-        List<Instructor> instructors = erpDb.getAllInstructors();
-        instructorTable.putClientProperty("instructors", instructors);
+        showInstructors(erpDb.getAllInstructors());
+    }
+
+    private void showInstructors(List<Instructor> instructors) {
+        instructorModel.setRows(instructors);
+    }
+
+    private static Object[] instructorValues(Instructor instructor) {
+        return new Object[]{
+                instructor.getId(),
+                instructor.getName(),
+                instructor.getEmail(),
+                instructor.getDepartment() != null ? instructor.getDepartment() : "-",
+                "Expand"
+        };
+    }
+
+    private void loadSections() {
+        showSections(erpDb.getAllSections(), erpDb.getAllCourses(), erpDb.getAllInstructors(),
+                erpDb.getEnrollmentCountsBySection());
+    }
+
+    // Joins sections to courses, instructors and counts in memory instead of querying per row
+    private void showSections(List<Section> sections, List<Course> courses, List<Instructor> instructors,
+                              Map<Integer, Integer> enrollmentCounts) {
+        Map<Integer, Course> coursesById = new HashMap<>();
+        for (Course course : courses) {
+            coursesById.put(course.getId(), course);
+        }
+        Map<Integer, Instructor> instructorsById = new HashMap<>();
         for (Instructor instructor : instructors) {
-            model.addRow(new Object[]{
-                    instructor.getId(),
-                    instructor.getName(),
-                    instructor.getEmail(),
-                    instructor.getDepartment() != null ? instructor.getDepartment() : "-",
-                    "Expand"
-            });
+            instructorsById.put(instructor.getId(), instructor);
         }
+
+        sectionModel.setRows(sections, section -> sectionValues(section,
+                coursesById.get(section.getCourseId()),
+                section.getInstructorId() != null ? instructorsById.get(section.getInstructorId()) : null,
+                enrollmentCounts.getOrDefault(section.getId(), 0)));
     }
 
-    private void loadSections() {
-        if (sectionsTable == null) {
+    // One section on its own: course and instructor from the entity caches, the count from seats_taken
+    private Object[] sectionValues(Section section) {
+        return sectionValues(section, erpDb.getCourseById(section.getCourseId()),
+                section.getInstructorId() != null ? erpDb.getInstructorById(section.getInstructorId()) : null,
+                erpDb.getEnrollmentCountForSection(section.getId()));
+    }
+
+    private static Object[] sectionValues(Section section, Course course, Instructor instructor, int enrolled) {
+        return new Object[]{
+                section.getId(),
+                course != null ? course.getCode() : "-",
+                section.getName(),
+                instructor != null ? instructor.getName() : "Unassigned",
+                section.getCapacity(),
+                enrolled,
+                section.getRoom() != null ? section.getRoom() : "-",
+                section.getTimetable() != null ? section.getTimetable() : "-"
+        };
+    }
+
+    // Called on the writing thread
+    private void onDataChanged(ChangeEvent event) {
+        SwingUtilities.invokeLater(() -> applyChange(event));
+    }
+
+    // Patches the rows an event touches instead of reloading the tables; bulk changes still reload
+    private void applyChange(ChangeEvent event) {
+        if (!isDisplayable()) {
             return;
         }
-        DefaultTableModel model = (DefaultTableModel) sectionsTable.getModel();
-        model.setRowCount(0);
-        List<Section> sections = erpDb.getAllSections();
-        sectionsTable.putClientProperty("sections", sections);
-        for (Section section : sections) {
-            Course course = erpDb.getCourseById(section.getCourseId());
-            Instructor instructor = section.getInstructorId() != null
-                    ? erpDb.getInstructorById(section.getInstructorId())
-                    : null;
-            int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-            model.addRow(new Object[]{
-                    section.getId(),
-                    course != null ? course.getCode() : "-",
-                    section.getName(),
-                    instructor != null ? instructor.getName() : "Unassigned",
-                    section.getCapacity(),
-                    enrolled,
-                    section.getRoom() != null ? section.getRoom() : "-",
-                    section.getTimetable() != null ? section.getTimetable() : "-"
-            });
+        int id = event.getId();
+        if (event.isBulk()) {
+            switch (event.getEntity()) {
+                case STUDENT -> loadStudents();
+                case INSTRUCTOR -> loadInstructors();
+                case COURSE -> {
+                    loadCourses();
+                    loadSections();
+                }
+                default -> loadSections();
+            }
+        } else {
+            switch (event.getEntity()) {
+                case STUDENT -> patchStudent(id);
+                case INSTRUCTOR -> {
+                    patchInstructor(id);
+                    patchSectionsWhere(section -> Objects.equals(section.getInstructorId(), id));
+                }
+                case COURSE -> {
+                    patchCourse(id);
+                    patchSectionsWhere(section -> section.getCourseId() == id);
+                }
+                case SECTION -> patchSection(id);
+                case ENROLLMENT -> {
+                    // Only the section's Students column shows enrollments; grade changes carry no section
+                    if (event.getSectionId() != 0) {
+                        patchSection(event.getSectionId());
+                    }
+                }
+            }
+        }
+        showCounts();
+    }
+
+    private void patchStudent(int id) {
+        Student student = erpDb.getStudentById(id);
+        if (student != null) {
+            studentModel.put(student, STUDENT_ORDER);
+        } else {
+            studentModel.remove(id);
         }
     }
 
+    private void patchInstructor(int id) {
+        Instructor instructor = erpDb.getInstructorById(id);
+        if (instructor != null) {
+            instructorModel.put(instructor, INSTRUCTOR_ORDER);
+        } else {
+            instructorModel.remove(id);
+        }
+    }
+
+    private void patchCourse(int id) {
+        Course course = erpDb.getCourseById(id);
+        if (course != null) {
+            courseModel.put(course, COURSE_ORDER);
+        } else {
+            courseModel.remove(id);
+        }
+    }
+
+    private void patchSection(int id) {
+        Section section = erpDb.getSectionById(id);
+        if (section != null) {
+            sectionModel.put(section, SECTION_ORDER);
+        } else {
+            sectionModel.remove(id);
+        }
+    }
+
+    private void patchSectionsWhere(Predicate<Section> affected) {
+        List<Integer> ids = new ArrayList<>();
+        for (Section section : sectionModel.getRows()) {
+            if (affected.test(section)) {
+                ids.add(section.getId());
+            }
+        }
+        ids.forEach(this::patchSection);
+    }
+
+    // The dashboard cards count the rows the tables already hold
+    private void showCounts() {
+        studentCountLabel.setText(String.valueOf(studentModel.getRowCount()));
+        instructorCountLabel.setText(String.valueOf(instructorModel.getRowCount()));
+        courseCountLabel.setText(String.valueOf(courseModel.getRowCount()));
+    }
+
     private void refreshStats() {
-        studentCountLabel.setText(String.valueOf(erpDb.getStudentCount()));
-        instructorCountLabel.setText(String.valueOf(erpDb.getInstructorCount()));
-        courseCountLabel.setText(String.valueOf(erpDb.getCourseCount()));
+        showStats(erpDb.getStudentCount(), erpDb.getInstructorCount(), erpDb.getCourseCount(), isMaintenanceEnabled());
+    }
 
-        boolean isMaintenance = isMaintenanceEnabled();
+    private void showStats(int studentCount, int instructorCount, int courseCount, boolean isMaintenance) {
+        studentCountLabel.setText(String.valueOf(studentCount));
+        instructorCountLabel.setText(String.valueOf(instructorCount));
+        courseCountLabel.setText(String.valueOf(courseCount));
+        showMaintenance(isMaintenance);
+    }
+
+    private void showMaintenance(boolean isMaintenance) {
         updatingMaintenanceToggle = true;
         maintenanceToggle.setSelected(isMaintenance);
         maintenanceToggle.setText(isMaintenance ? "Maintenance On" : "Maintenance Off");
@@ -1006,28 +1344,29 @@ public class AdminDashboard extends JFrame {
     }
 
     private boolean isMaintenanceEnabled() {
-        Settings setting = erpDb.getSetting("maintenance_mode");
-        return setting != null && "ON".equalsIgnoreCase(setting.getValue());
+        return SettingsStore.isMaintenanceMode();
     }
 
     private void setMaintenanceMode(boolean enabled) {
-        boolean saved = erpDb.setSetting("maintenance_mode", enabled ? "ON" : "OFF");
+        if (!ensureAdminSession()) {
+            refreshStats();
+            return;
+        }
+        boolean saved = SettingsStore.set(SettingsStore.MAINTENANCE_MODE, enabled ? "ON" : "OFF");
         if (!saved) {
             showMessage("Unable to update maintenance mode.", MessageType.ERROR);
         }
-        refreshStats();
+        showMaintenance(isMaintenanceEnabled());
     }
 
     private void handleCourseExpandAction(int viewRow) {
-        List<Course> courses = (List<Course>) courseTable.getClientProperty("courses");
-        if (courses == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = courseTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= courses.size()) {
-            return;
+        Course course = courseModel.getRow(courseTable.convertRowIndexToModel(viewRow));
+        if (course != null) {
+            openCourseSectionsDialog(course);
         }
-        openCourseSectionsDialog(courses.get(modelRow));
     }
 
     private Course getSelectedCourse() {
@@ -1036,15 +1375,7 @@ public class AdminDashboard extends JFrame {
             showMessage("Select a course first.", MessageType.INFO);
             return null;
         }
-        List<Course> courses = (List<Course>) courseTable.getClientProperty("courses");
-        if (courses == null) {
-            return null;
-        }
-        int modelRow = courseTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= courses.size()) {
-            return null;
-        }
-        return courses.get(modelRow);
+        return courseModel.getRow(courseTable.convertRowIndexToModel(viewRow));
     }
 
     private Student getSelectedStudent() {
@@ -1053,15 +1384,7 @@ public class AdminDashboard extends JFrame {
             showMessage("Select a student first.", MessageType.INFO);
             return null;
         }
-        List<Student> students = (List<Student>) studentTable.getClientProperty("students");
-        if (students == null) {
-            return null;
-        }
-        int modelRow = studentTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= students.size()) {
-            return null;
-        }
-        return students.get(modelRow);
+        return studentModel.getRow(studentTable.convertRowIndexToModel(viewRow));
     }
 
     private Instructor getSelectedInstructor() {
@@ -1070,15 +1393,7 @@ public class AdminDashboard extends JFrame {
             showMessage("Select an instructor first.", MessageType.INFO);
             return null;
         }
-        List<Instructor> instructors = (List<Instructor>) instructorTable.getClientProperty("instructors");
-        if (instructors == null) {
-            return null;
-        }
-        int modelRow = instructorTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= instructors.size()) {
-            return null;
-        }
-        return instructors.get(modelRow);
+        return instructorModel.getRow(instructorTable.convertRowIndexToModel(viewRow));
     }
 
     private Section getSelectedSection() {
@@ -1091,15 +1406,7 @@ public class AdminDashboard extends JFrame {
             showMessage("Select a section first.", MessageType.INFO);
             return null;
         }
-        List<Section> sections = (List<Section>) sectionsTable.getClientProperty("sections");
-        if (sections == null) {
-            return null;
-        }
-        int modelRow = sectionsTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= sections.size()) {
-            return null;
-        }
-        return sections.get(modelRow);
+        return sectionModel.getRow(sectionsTable.convertRowIndexToModel(viewRow));
     }
 
     private void openCourseDialog(Course current) {
@@ -1154,8 +1461,6 @@ public class AdminDashboard extends JFrame {
         }
 
         showMessage(current == null ? "Course created successfully." : "Course updated successfully.", MessageType.SUCCESS);
-        loadCourses();
-        refreshStats();
     }
 
     private void deleteCourse() {
@@ -1171,9 +1476,6 @@ public class AdminDashboard extends JFrame {
             return;
         }
         showMessage("Course deleted.", MessageType.SUCCESS);
-        loadCourses();
-        loadSections();
-        refreshStats();
     }
 
     private void openCourseSectionsDialog(Course course) {
@@ -1181,30 +1483,34 @@ public class AdminDashboard extends JFrame {
         dialog.setSize(720, 480);
         dialog.setLocationRelativeTo(this);
 
-        JTable table = buildTable(new String[]{"Section", "Instructor", "Capacity", "Enrolled", "Room", "Timetable"});
-        loadCourseSections(table, course);
+        EntityTableModel<Section> model = new EntityTableModel<>(
+                new String[]{"Section", "Instructor", "Capacity", "Enrolled", "Room", "Timetable"},
+                Section::getId, this::courseSectionValues);
+        JTable table = new JTable(model);
+        styleTable(table);
+        loadCourseSections(model, course);
 
         JButton addBtn = createButton("Add Section");
         addBtn.addActionListener(e -> {
             if (openSectionForm(null, course)) {
-                loadCourseSections(table, course);
+                loadCourseSections(model, course);
             }
         });
 
         JButton editBtn = createButton("Edit Section");
         editBtn.addActionListener(e -> {
-            Section section = getSectionFromCourseTable(table);
+            Section section = getSectionFromCourseTable(table, model);
             if (section != null && openSectionForm(section, course)) {
-                loadCourseSections(table, course);
+                loadCourseSections(model, course);
             }
         });
 
         JButton deleteBtn = createButton("Delete Section");
         deleteBtn.addActionListener(e -> {
-            Section section = getSectionFromCourseTable(table);
+            Section section = getSectionFromCourseTable(table, model);
             if (section != null) {
                 deleteSection(section);
-                loadCourseSections(table, course);
+                loadCourseSections(model, course);
             }
         });
 
@@ -1219,41 +1525,29 @@ public class AdminDashboard extends JFrame {
         dialog.setVisible(true);
     }
 
-    @SuppressWarnings("unchecked")
-    private Section getSectionFromCourseTable(JTable table) {
+    private Section getSectionFromCourseTable(JTable table, EntityTableModel<Section> model) {
         int viewRow = table.getSelectedRow();
         if (viewRow < 0) {
             showMessage("Select a section first.", MessageType.INFO);
             return null;
         }
-        List<Section> sections = (List<Section>) table.getClientProperty("course_sections");
-        if (sections == null) {
-            return null;
-        }
-        int modelRow = table.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= sections.size()) {
-            return null;
-        }
-        return sections.get(modelRow);
+        return model.getRow(table.convertRowIndexToModel(viewRow));
     }
 
-    private void loadCourseSections(JTable table, Course course) {
-        DefaultTableModel model = (DefaultTableModel) table.getModel();
-        model.setRowCount(0);
-        List<Section> sections = erpDb.getSectionsByCourse(course.getId());
-        table.putClientProperty("course_sections", sections);
-        for (Section section : sections) {
-            Instructor instructor = section.getInstructorId() != null ? erpDb.getInstructorById(section.getInstructorId()) : null;
-            int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-            model.addRow(new Object[]{
-                    section.getName(),
-                    instructor != null ? instructor.getName() : "Unassigned",
-                    section.getCapacity(),
-                    enrolled,
-                    section.getRoom() == null || section.getRoom().isEmpty() ? "-" : section.getRoom(),
-                    section.getTimetable() == null || section.getTimetable().isEmpty() ? "-" : section.getTimetable()
-            });
-        }
+    private void loadCourseSections(EntityTableModel<Section> model, Course course) {
+        model.setRows(erpDb.getSectionsByCourse(course.getId()));
+    }
+
+    private Object[] courseSectionValues(Section section) {
+        Instructor instructor = section.getInstructorId() != null ? erpDb.getInstructorById(section.getInstructorId()) : null;
+        return new Object[]{
+                section.getName(),
+                instructor != null ? instructor.getName() : "Unassigned",
+                section.getCapacity(),
+                erpDb.getEnrollmentCountForSection(section.getId()),
+                section.getRoom() == null || section.getRoom().isEmpty() ? "-" : section.getRoom(),
+                section.getTimetable() == null || section.getTimetable().isEmpty() ? "-" : section.getTimetable()
+        };
     }
 
     private boolean openSectionForm(Section current, Course lockedCourse) {
@@ -1341,7 +1635,6 @@ public class AdminDashboard extends JFrame {
         }
 
         showMessage(current == null ? "Section created." : "Section updated.", MessageType.SUCCESS);
-        loadSections();
         return true;
     }
 
@@ -1354,7 +1647,6 @@ public class AdminDashboard extends JFrame {
             return;
         }
         showMessage("Section removed.", MessageType.SUCCESS);
-        loadSections();
     }
 
     private void openAssignInstructorDialog(Section section) {
@@ -1385,7 +1677,6 @@ public class AdminDashboard extends JFrame {
             return;
         }
         showMessage("Instructor updated.", MessageType.SUCCESS);
-        loadSections();
     }
 
     private void openSectionStudentsDialog(Section section) {
@@ -1437,20 +1728,91 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        if (!AuthService.register(username, password, "student")) {
-            showMessage("Unable to create login for this student.", MessageType.ERROR);
+        if (!ensureAdminSession()) {
             return;
         }
 
-        if (!erpDb.addStudent(name, email, program)) {
-            AuthService.deleteUser(username);
-            showMessage("Unable to save student profile.", MessageType.ERROR);
+        // Login, profile and username mapping are written together or not at all
+        ProvisioningReport report = ProvisioningService.provision(
+                List.of(new AccountRequest(1, username, password, name, email, program)), ProvisioningService.STUDENT);
+        if (report.isFailed() || report.getCreated() == 0) {
+            String reason = report.isFailed() ? report.getFailure() : report.getErrors().get(0).getMessage();
+            showMessage("Unable to register student: " + reason, MessageType.ERROR);
             return;
         }
 
         showMessage("Student registered successfully.", MessageType.SUCCESS);
-        loadStudents();
-        refreshStats();
+    }
+
+    // Bulk onboarding: username,password,name,email,program|department per line, created in one transaction
+    private void importAccountsFromCsv(String role) {
+        if (!ensureAdminSession()) {
+            return;
+        }
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import " + role + " accounts from CSV");
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<ProvisioningReport, Void>() {
+            @Override
+            protected ProvisioningReport doInBackground() {
+                return ProvisioningService.importCsv(file, role);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                ProvisioningReport report;
+                try {
+                    report = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    showMessage("Import failed: " + e.getMessage(), MessageType.ERROR);
+                    return;
+                }
+                showProvisioningReport(report);
+            }
+        }.execute();
+    }
+
+    private void showProvisioningReport(ProvisioningReport report) {
+        if (report.isFailed()) {
+            showMessage(report.getFailure(), MessageType.ERROR);
+            return;
+        }
+        StringBuilder html = new StringBuilder("<html>Created " + report.getCreated() + " accounts in "
+                + report.getElapsedMillis() + " ms.");
+        List<ProvisioningReport.RowError> errors = report.getErrors();
+        if (!errors.isEmpty()) {
+            html.append("<br>Skipped ").append(errors.size()).append(" rows:");
+            int shown = Math.min(errors.size(), 10);
+            for (int i = 0; i < shown; i++) {
+                html.append("<br>&nbsp;&nbsp;").append(escapeHtml(errors.get(i).toString()));
+            }
+            if (errors.size() > shown) {
+                html.append("<br>&nbsp;&nbsp;... and ").append(errors.size() - shown).append(" more (see console)");
+                errors.forEach(error -> System.err.println("Import: " + error));
+            }
+        }
+        html.append("</html>");
+        showMessage(html.toString(), errors.isEmpty() ? MessageType.SUCCESS : MessageType.INFO);
+    }
+
+    // Privileged actions re-check the cached session rather than trusting whichever frame is open
+    private boolean ensureAdminSession() {
+        if (AuthService.hasRole(user, "admin")) {
+            return true;
+        }
+        showMessage("Your session has expired. Please log out and sign in again.", MessageType.ERROR);
+        return false;
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 
     private void openStudentEditDialog(Student current) {
@@ -1481,7 +1843,6 @@ public class AdminDashboard extends JFrame {
             return;
         }
         showMessage("Student updated.", MessageType.SUCCESS);
-        loadStudents();
     }
 
     private void deleteStudent() {
@@ -1489,16 +1850,15 @@ public class AdminDashboard extends JFrame {
         if (student == null) {
             return;
         }
-        if (!confirmAction("Delete selected student profile?")) {
+        if (!ensureAdminSession() || !confirmAction("Delete selected student profile?")) {
             return;
         }
         if (!erpDb.deleteStudent(student.getId())) {
             showMessage("Unable to delete student.", MessageType.ERROR);
             return;
         }
+        AuthService.endProfileSessions("student", student.getId());
         showMessage("Student removed.", MessageType.SUCCESS);
-        loadStudents();
-        refreshStats();
     }
 
     private void openEnrollmentDialog(Student student) {
@@ -1526,26 +1886,21 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        int currentCount = erpDb.getEnrollmentCountForSection(target.getId());
-        if (currentCount >= target.getCapacity()) {
+        // Capacity and duplicate checks run atomically with the insert
+        RegistrationOutcome outcome = erpDb.registerStudentForSection(student.getId(), target.getId());
+        if (outcome == RegistrationOutcome.SECTION_FULL) {
             showMessage("Section is already at capacity.", MessageType.ERROR);
             return;
         }
-
-        List<Enrollment> enrollments = erpDb.getEnrollmentsByStudent(student.getId());
-        boolean alreadyEnrolled = enrollments.stream().anyMatch(e -> e.getSectionId() == target.getId());
-        if (alreadyEnrolled) {
+        if (outcome == RegistrationOutcome.ALREADY_REGISTERED) {
             showMessage("Student is already enrolled in this section.", MessageType.INFO);
             return;
         }
-
-        if (!erpDb.createEnrollment(student.getId(), target.getId())) {
+        if (outcome != RegistrationOutcome.REGISTERED) {
             showMessage("Unable to create enrollment.", MessageType.ERROR);
             return;
         }
         showMessage("Student enrolled successfully.", MessageType.SUCCESS);
-        loadStudents();
-        loadSections();
     }
 
     private void openInstructorRegistrationDialog() {
@@ -1579,20 +1934,20 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        if (!AuthService.register(username, password, "instructor")) {
-            showMessage("Unable to create login for this instructor.", MessageType.ERROR);
+        if (!ensureAdminSession()) {
             return;
         }
 
-        if (!erpDb.addInstructor(name, email, department)) {
-            AuthService.deleteUser(username);
-            showMessage("Unable to save instructor profile.", MessageType.ERROR);
+        // Login, profile and username mapping are written together or not at all
+        ProvisioningReport report = ProvisioningService.provision(
+                List.of(new AccountRequest(1, username, password, name, email, department)), ProvisioningService.INSTRUCTOR);
+        if (report.isFailed() || report.getCreated() == 0) {
+            String reason = report.isFailed() ? report.getFailure() : report.getErrors().get(0).getMessage();
+            showMessage("Unable to register instructor: " + reason, MessageType.ERROR);
             return;
         }
 
         showMessage("Instructor registered successfully.", MessageType.SUCCESS);
-        loadInstructors();
-        refreshStats();
     }
 
     private void openInstructorEditDialog(Instructor instructor) {
@@ -1626,7 +1981,6 @@ public class AdminDashboard extends JFrame {
         }
 
         showMessage("Instructor updated.", MessageType.SUCCESS);
-        loadInstructors();
     }
 
     private void deleteInstructor() {
@@ -1634,16 +1988,15 @@ public class AdminDashboard extends JFrame {
         if (instructor == null) {
             return;
         }
-        if (!confirmAction("Delete selected instructor profile?")) {
+        if (!ensureAdminSession() || !confirmAction("Delete selected instructor profile?")) {
             return;
         }
         if (!erpDb.deleteInstructor(instructor.getId())) {
             showMessage("Unable to delete instructor.", MessageType.ERROR);
             return;
         }
+        AuthService.endProfileSessions("instructor", instructor.getId());
         showMessage("Instructor removed.", MessageType.SUCCESS);
-        loadInstructors();
-        refreshStats();
     }
 
     private void openChangePasswordDialog() {
@@ -1671,7 +2024,7 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        boolean changed = AuthService.changePassword(user.getUsername(), current, next);
+        boolean changed = AuthService.changePassword(user, current, next);
         if (!changed) {
             showMessage("Unable to change password. Verify your current password.", MessageType.ERROR);
             return;
@@ -0,0 +1,224 @@
+package ui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Table rows backed by entities keyed by id. setRows() diffs the new list against what is on screen and
+// fires row-level deletes, inserts and updates only for rows that actually differ, so a refresh keeps the
+// selection and scroll position and repaints nothing that stayed the same. put() and remove() patch a
+// single entity. Rows are compared by their rendered cell values, not by entity equality.
+public class EntityTableModel<T> extends AbstractTableModel {
+
+    private final String[] columns;
+    private final ToIntFunction<? super T> idOf;
+    private final Function<? super T, Object[]> toRow;
+    private final int buttonColumn; // the only editable column, -1 for none
+
+    private final List<T> rows = new ArrayList<>();
+    private final List<Object[]> values = new ArrayList<>();
+
+    public EntityTableModel(String[] columns, ToIntFunction<? super T> idOf, Function<? super T, Object[]> toRow) {
+        this(columns, idOf, toRow, -1);
+    }
+
+    public EntityTableModel(String[] columns, ToIntFunction<? super T> idOf, Function<? super T, Object[]> toRow,
+                            int buttonColumn) {
+        this.columns = columns;
+        this.idOf = idOf;
+        this.toRow = toRow;
+        this.buttonColumn = buttonColumn;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return values.get(row)[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == buttonColumn;
+    }
+
+    // Entity behind a model row, or null when the index is out of range
+    public T getRow(int modelRow) {
+        return modelRow >= 0 && modelRow < rows.size() ? rows.get(modelRow) : null;
+    }
+
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    public int indexOf(int id) {
+        return indexOf(id, 0);
+    }
+
+    public void setRows(List<? extends T> items) {
+        setRows(items, toRow);
+    }
+
+    // Brings the table to exactly the given list, in its order. Removed ids go first in contiguous runs,
+    // then the new order is walked: unchanged rows fire nothing, changed ones one update, rows that
+    // moved a delete and an insert, and runs of new ids a single insert.
+    public void setRows(List<? extends T> items, Function<? super T, Object[]> rowValues) {
+        Set<Integer> wanted = new HashSet<>();
+        for (T item : items) {
+            wanted.add(idOf.applyAsInt(item));
+        }
+        int end = rows.size() - 1;
+        while (end >= 0) {
+            if (wanted.contains(idAt(end))) {
+                end--;
+                continue;
+            }
+            int start = end;
+            while (start > 0 && !wanted.contains(idAt(start - 1))) {
+                start--;
+            }
+            rows.subList(start, end + 1).clear();
+            values.subList(start, end + 1).clear();
+            fireTableRowsDeleted(start, end);
+            end = start - 1;
+        }
+
+        Set<Integer> shown = new HashSet<>();
+        for (T row : rows) {
+            shown.add(idOf.applyAsInt(row));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            int id = idOf.applyAsInt(item);
+            if (!shown.contains(id)) {
+                int last = i;
+                while (last + 1 < items.size() && !shown.contains(idOf.applyAsInt(items.get(last + 1)))) {
+                    last++;
+                }
+                for (int k = i; k <= last; k++) {
+                    rows.add(k, items.get(k));
+                    values.add(k, rowValues.apply(items.get(k)));
+                }
+                fireTableRowsInserted(i, last);
+                i = last;
+                continue;
+            }
+            Object[] row = rowValues.apply(item);
+            if (idAt(i) == id) {
+                rows.set(i, item);
+                if (!Arrays.equals(values.get(i), row)) {
+                    values.set(i, row);
+                    fireTableRowsUpdated(i, i);
+                }
+                continue;
+            }
+            int from = indexOf(id, i + 1);
+            rows.remove(from);
+            values.remove(from);
+            fireTableRowsDeleted(from, from);
+            rows.add(i, item);
+            values.add(i, row);
+            fireTableRowsInserted(i, i);
+        }
+    }
+
+    public void put(T item, Comparator<? super T> order) {
+        put(item, toRow.apply(item), order);
+    }
+
+    // Replaces the entity's row, moving it only if it no longer sorts where it is; a new id is inserted
+    // at its place in order, or appended when order is null
+    public void put(T item, Object[] row, Comparator<? super T> order) {
+        int index = indexOf(idOf.applyAsInt(item));
+        if (index >= 0) {
+            boolean inPlace = order == null
+                    || ((index == 0 || order.compare(rows.get(index - 1), item) <= 0)
+                    && (index == rows.size() - 1 || order.compare(item, rows.get(index + 1)) <= 0));
+            if (inPlace) {
+                rows.set(index, item);
+                if (!Arrays.equals(values.get(index), row)) {
+                    values.set(index, row);
+                    fireTableRowsUpdated(index, index);
+                }
+                return;
+            }
+            rows.remove(index);
+            values.remove(index);
+            fireTableRowsDeleted(index, index);
+        }
+        int insertAt = rows.size();
+        if (order != null) {
+            insertAt = 0;
+            while (insertAt < rows.size() && order.compare(rows.get(insertAt), item) <= 0) {
+                insertAt++;
+            }
+        }
+        rows.add(insertAt, item);
+        values.add(insertAt, row);
+        fireTableRowsInserted(insertAt, insertAt);
+    }
+
+    // Adds rows after the last one with a single insert event; the ids must not be shown yet
+    public void append(List<? extends T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        for (T item : items) {
+            rows.add(item);
+            values.add(toRow.apply(item));
+        }
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    public void remove(int id) {
+        int index = indexOf(id);
+        if (index >= 0) {
+            rows.remove(index);
+            values.remove(index);
+            fireTableRowsDeleted(index, index);
+        }
+    }
+
+    public void clear() {
+        if (!rows.isEmpty()) {
+            int last = rows.size() - 1;
+            rows.clear();
+            values.clear();
+            fireTableRowsDeleted(0, last);
+        }
+    }
+
+    private int idAt(int index) {
+        return idOf.applyAsInt(rows.get(index));
+    }
+
+    private int indexOf(int id, int from) {
+        for (int i = from; i < rows.size(); i++) {
+            if (idAt(i) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,16 +1,18 @@
 package ui;
 
+import db.ChangeBus;
 import db.erpDB;
 import model.*;
 import service.AuthService;
+import service.DashboardPrefetch;
 import service.ErpService;
+import service.SettingsStore;
 import util.ThemeManager;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumn;
 import java.awt.*;
@@ -31,14 +33,24 @@ public class InstructorDashboard extends JFrame {
     private static final String[] NAV_ITEMS = {
             "Home", "Grading"
     };
+    private static final int ROSTER_PAGE_SIZE = 100;
 
     private final User user;
     private final erpDB erpDb;
+    private final SettingsStore.Listener settingsListener = this::onSettingChanged;
+    private final ChangeBus.Listener changeListener = this::onDataChanged;
     private Instructor instructor;
     private Image headerBackgroundImage;
 
     private JTable coursesTable;
+    private final EntityTableModel<CatalogRow> teaching = new EntityTableModel<>(
+            new String[]{"Course Code", "Title", "Credits", "Section", "Students Enrolled", "Capacity"},
+            CatalogRow::getSectionId, InstructorDashboard::teachingValues);
+    private final EntityTableModel<RosterEntry> roster = new EntityTableModel<>(
+            new String[]{"Student Name", "Email", "SGPA", "Expand"},
+            RosterEntry::getEnrollmentId, InstructorDashboard::rosterValues, 3);
     private JTable gradingTable;
+    private SwingWorker<Void, List<RosterEntry>> rosterLoader;
     private RoundedToggleButton darkModeToggle;
 
     private CardLayout contentLayout;
@@ -46,29 +58,18 @@ public class InstructorDashboard extends JFrame {
     private final Map<String, NavigationButton> navButtons = new LinkedHashMap<>();
 
     public InstructorDashboard(User user) {
-        this.user = user;
-        this.erpDb = new erpDB();
-        String username = user.getUsername();
+        this(user, ErpService.findInstructorForUser(user.getUsername()));
+    }
 
-        // Try to find instructor by email
-        this.instructor = ErpService.getInstructorByEmail(username);
+    public InstructorDashboard(User user, Instructor instructor) {
+        this(user, instructor, null);
+    }
 
-        if (this.instructor == null) {
-            // Try to find instructor by matching username with email prefix or name
-            List<Instructor> allInstructors = erpDb.getAllInstructors();
-            for (Instructor i : allInstructors) {
-                String email = i.getEmail() != null ? i.getEmail().toLowerCase() : "";
-                String name = i.getName() != null ? i.getName().toLowerCase() : "";
-                String usernameLower = username.toLowerCase();
-
-                if (email.equals(usernameLower) ||
-                        email.startsWith(usernameLower + "@") ||
-                        name.equals(usernameLower)) {
-                    this.instructor = i;
-                    break;
-                }
-            }
-        }
+    // Used by the login pipeline, which resolves the profile and prefetches the tables off the event thread
+    public InstructorDashboard(User user, Instructor instructor, DashboardPrefetch.InstructorData prefetched) {
+        this.user = user;
+        this.erpDb = erpDB.getInstance();
+        this.instructor = instructor;
 
         if (this.instructor == null) {
             JOptionPane.showMessageDialog(null, "Instructor profile not found. Please contact administrator.");
@@ -80,8 +81,32 @@ public class InstructorDashboard extends JFrame {
         ThemeManager.loadDarkModePreference();
         loadHeaderBackground();
         initUI();
-        refreshAllData();
+        if (prefetched != null) {
+            showCourses(prefetched.getTeaching());
+        } else {
+            refreshAllData();
+        }
         applyTheme();
+        SettingsStore.addListener(settingsListener);
+        ChangeBus.subscribe(changeListener);
+    }
+
+    @Override
+    public void dispose() {
+        SettingsStore.removeListener(settingsListener);
+        ChangeBus.unsubscribe(changeListener);
+        super.dispose();
+    }
+
+    // Called on the thread that changed the setting
+    private void onSettingChanged(String key, String oldValue, String newValue, SettingsStore.Snapshot snapshot) {
+        if (!SettingsStore.MAINTENANCE_MODE.equals(key)) {
+            return;
+        }
+        boolean maintenance = snapshot.isMaintenanceMode();
+        SwingUtilities.invokeLater(() -> showMessage(maintenance
+                ? "The portal is now in maintenance mode."
+                : "Maintenance is over. The portal is live again.", MessageType.INFO));
     }
 
     private void loadHeaderBackground() {
@@ -187,6 +212,7 @@ public class InstructorDashboard extends JFrame {
 
         JButton logoutBtn = createButton("Logout", new Color(220, 53, 69));
         logoutBtn.addActionListener(e -> {
+            AuthService.logout(user);
             dispose();
             new LoginScreen().setVisible(true);
         });
@@ -274,8 +300,7 @@ public class InstructorDashboard extends JFrame {
         panel.setBackground(ThemeManager.getBackgroundColor());
         panel.setBorder(new EmptyBorder(30, 30, 30, 30));
 
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Course Code", "Title", "Credits", "Section", "Students Enrolled", "Capacity"}, 0);
-        coursesTable = new JTable(model);
+        coursesTable = new JTable(teaching);
         styleTable(coursesTable);
         coursesTable.setRowHeight(34);
 
@@ -337,13 +362,7 @@ public class InstructorDashboard extends JFrame {
         courseSelectionPanel.add(coursePanel, BorderLayout.NORTH);
 
         // Students grading table
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Student Name", "Email", "SGPA", "Expand"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 3;
-            }
-        };
-        gradingTable = new JTable(model);
+        gradingTable = new JTable(roster);
         styleTable(gradingTable);
         gradingTable.setRowHeight(34);
         attachButtonColumn(gradingTable, 3, "Expand", this::handleExpandGrading);
@@ -361,23 +380,22 @@ public class InstructorDashboard extends JFrame {
     }
 
     private void loadCourses() {
-        DefaultTableModel model = (DefaultTableModel) coursesTable.getModel();
-        model.setRowCount(0);
-        List<Section> sections = erpDb.getSectionsByInstructor(instructor.getId());
+        showCourses(erpDb.getCatalogRowsForInstructor(instructor.getId()));
+    }
 
-        for (Section section : sections) {
-            Course course = erpDb.getCourseById(section.getCourseId());
-            int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-
-            model.addRow(new Object[]{
-                    course != null ? course.getCode() : "?",
-                    course != null ? course.getTitle() : "?",
-                    course != null ? course.getCredits() : 0,
-                    section.getName(),
-                    enrolled,
-                    section.getCapacity()
-            });
-        }
+    private void showCourses(List<CatalogRow> rows) {
+        teaching.setRows(rows);
+    }
+
+    private static Object[] teachingValues(CatalogRow row) {
+        return new Object[]{
+                row.getCourseCode() != null ? row.getCourseCode() : "?",
+                row.getCourseTitle() != null ? row.getCourseTitle() : "?",
+                row.getCredits(),
+                row.getSectionName(),
+                row.getEnrolled(),
+                row.getCapacity()
+        };
     }
 
     private void loadGradingCourses() {
@@ -403,70 +421,84 @@ public class InstructorDashboard extends JFrame {
         }
     }
 
+    // Streams the roster in page by page so large courses show rows as soon as they arrive. Reloading the
+    // course already on screen collects the pages first and diffs them in, so unchanged rows stay put.
     private void loadStudentsForGrading(Course course) {
-        DefaultTableModel model = (DefaultTableModel) gradingTable.getModel();
-        model.setRowCount(0);
-
-        // Get all sections for this course assigned to this instructor
-        List<Section> allSections = erpDb.getSectionsByInstructor(instructor.getId());
-        List<Section> courseSections = new ArrayList<>();
-        for (Section section : allSections) {
-            if (section.getCourseId() == course.getId()) {
-                courseSections.add(section);
-            }
+        if (rosterLoader != null) {
+            rosterLoader.cancel(false);
         }
-
-        List<Enrollment> allEnrollments = new ArrayList<>();
-        for (Section section : courseSections) {
-            allEnrollments.addAll(erpDb.getEnrollmentsBySection(section.getId()));
+        Course shown = (Course) gradingTable.getClientProperty("rosterCourse");
+        boolean reload = shown != null && shown.getId() == course.getId();
+        if (!reload) {
+            roster.clear();
         }
+        gradingTable.putClientProperty("rosterCourse", course);
 
-        gradingTable.putClientProperty("enrollments", allEnrollments);
-
-        for (Enrollment enrollment : allEnrollments) {
-            Student student = erpDb.getStudentById(enrollment.getStudentId());
-            if (student == null) continue;
+        List<RosterEntry> loaded = new ArrayList<>();
+        rosterLoader = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                int offset = 0;
+                while (!isCancelled()) {
+                    List<RosterEntry> page = erpDb.getGradingRoster(instructor.getId(), course.getId(), offset, ROSTER_PAGE_SIZE);
+                    if (!page.isEmpty()) {
+                        publish(page);
+                    }
+                    if (page.size() < ROSTER_PAGE_SIZE) {
+                        break;
+                    }
+                    offset += page.size();
+                }
+                return null;
+            }
 
-            Grade grade = enrollment.getGradeId() != null
-                    ? erpDb.getGradeById(enrollment.getGradeId())
-                    : null;
+            @Override
+            protected void process(List<List<RosterEntry>> pages) {
+                if (isCancelled()) {
+                    return;
+                }
+                for (List<RosterEntry> page : pages) {
+                    loaded.addAll(page);
+                    if (!reload) {
+                        roster.append(page);
+                    }
+                }
+            }
 
-            String sgpa = "-";
-            if (grade != null && grade.getSGPA() != null) {
-                sgpa = String.format("%.2f", grade.getSGPA());
+            @Override
+            protected void done() {
+                if (reload && !isCancelled()) {
+                    roster.setRows(loaded);
+                }
             }
+        };
+        rosterLoader.execute();
+    }
 
-            model.addRow(new Object[]{
-                    student.getName(),
-                    student.getEmail(),
-                    sgpa,
-                    "Expand"
-            });
-        }
+    private static Object[] rosterValues(RosterEntry entry) {
+        Grade grade = entry.getGrade();
+        return new Object[]{
+                entry.getStudentName(),
+                entry.getStudentEmail(),
+                grade != null && grade.getSGPA() != null ? String.format("%.2f", grade.getSGPA()) : "-",
+                "Expand"
+        };
     }
 
     private void handleExpandGrading(int viewRow) {
-        List<Enrollment> enrollments = (List<Enrollment>) gradingTable.getClientProperty("enrollments");
-        if (enrollments == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = gradingTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= enrollments.size()) {
-            return;
+        RosterEntry entry = roster.getRow(gradingTable.convertRowIndexToModel(viewRow));
+        if (entry != null) {
+            openGradingDialog(entry, (Course) gradingTable.getClientProperty("rosterCourse"));
         }
-        Enrollment enrollment = enrollments.get(modelRow);
-        openGradingDialog(enrollment);
     }
 
-    private void openGradingDialog(Enrollment enrollment) {
-        Student student = erpDb.getStudentById(enrollment.getStudentId());
-        Section section = erpDb.getSectionById(enrollment.getSectionId());
-        Course course = section != null ? erpDb.getCourseById(section.getCourseId()) : null;
-        Grade grade = enrollment.getGradeId() != null
-                ? erpDb.getGradeById(enrollment.getGradeId())
-                : null;
+    private void openGradingDialog(RosterEntry entry, Course course) {
+        Grade grade = entry.getGrade();
 
-        JDialog dialog = new JDialog(this, "Grade Student • " + (student != null ? student.getName() : "Unknown"), true);
+        JDialog dialog = new JDialog(this, "Grade Student • " + entry.getStudentName(), true);
         dialog.setSize(500, 300);
         dialog.setLocationRelativeTo(this);
 
@@ -481,7 +513,7 @@ public class InstructorDashboard extends JFrame {
         gbc.gridx = 0; gbc.gridy = 0;
         infoPanel.add(new JLabel("Student:"), gbc);
         gbc.gridx = 1;
-        infoPanel.add(new JLabel(student != null ? student.getName() : "-"), gbc);
+        infoPanel.add(new JLabel(entry.getStudentName()), gbc);
 
         gbc.gridx = 0; gbc.gridy = 1;
         infoPanel.add(new JLabel("Course:"), gbc);
@@ -491,7 +523,7 @@ public class InstructorDashboard extends JFrame {
         gbc.gridx = 0; gbc.gridy = 2;
         infoPanel.add(new JLabel("Section:"), gbc);
         gbc.gridx = 1;
-        infoPanel.add(new JLabel(section != null ? section.getName() : "-"), gbc);
+        infoPanel.add(new JLabel(entry.getSectionName() != null ? entry.getSectionName() : "-"), gbc);
 
         gbc.gridx = 0; gbc.gridy = 3;
         infoPanel.add(new JLabel("SGPA:"), gbc);
@@ -522,10 +554,10 @@ public class InstructorDashboard extends JFrame {
                     return;
                 }
 
-                int gradeId = erpDb.createOrUpdateGrade(enrollment.getId(), sgpa);
+                int gradeId = erpDb.createOrUpdateGrade(entry.getEnrollmentId(), sgpa);
                 if (gradeId > 0) {
+                    // The enrollment event updates this student's row in the roster
                     showMessage("Grade saved successfully.", MessageType.SUCCESS);
-                    loadStudentsForGrading(course);
                     dialog.dispose();
                 } else {
                     showMessage("Unable to save grade.", MessageType.ERROR);
@@ -553,6 +585,66 @@ public class InstructorDashboard extends JFrame {
         loadCourses();
     }
 
+    // Called on the writing thread
+    private void onDataChanged(ChangeEvent event) {
+        SwingUtilities.invokeLater(() -> applyChange(event));
+    }
+
+    // A grade or seat change touches one cell; edits to the instructor's sections or their courses
+    // reload the short teaching list, and a roster change in the open course reloads that roster
+    private void applyChange(ChangeEvent event) {
+        if (!isDisplayable()) {
+            return;
+        }
+        if (event.getEntity() != ChangeEvent.Entity.ENROLLMENT) {
+            if (affectsTeaching(event)) {
+                loadCourses();
+            }
+            return;
+        }
+        int row = teaching.indexOf(event.getSectionId());
+        if (row >= 0) {
+            CatalogRow section = erpDb.getCatalogRow(event.getSectionId());
+            if (section != null) {
+                teaching.put(section, null);
+            }
+        }
+
+        Course course = (Course) gradingTable.getClientProperty("rosterCourse");
+        if (course == null) {
+            return;
+        }
+        if (event.getOperation() == ChangeEvent.Operation.UPDATED) {
+            RosterEntry entry = roster.getRow(roster.indexOf(event.getId()));
+            if (entry != null) {
+                patchRosterGrade(entry);
+            }
+        } else if (row >= 0 && teaching.getRow(row).getCourseId() == course.getId()) {
+            loadStudentsForGrading(course);
+        }
+    }
+
+    private void patchRosterGrade(RosterEntry old) {
+        TranscriptEntry current = erpDb.getTranscriptEntry(old.getEnrollmentId());
+        if (current == null) {
+            return;
+        }
+        Grade grade = current.getGrade();
+        roster.put(new RosterEntry(old.getEnrollmentId(), old.getSectionId(), old.getSectionName(),
+                old.getStudentId(), old.getStudentName(), old.getStudentEmail(), current.getGradeId(),
+                grade != null ? grade.getGrade() : null), null);
+    }
+
+    private boolean affectsTeaching(ChangeEvent event) {
+        return switch (event.getEntity()) {
+            case SECTION -> true; // a new or reassigned section may now belong to this instructor
+            case COURSE -> event.isBulk()
+                    || teaching.getRows().stream().anyMatch(row -> row.getCourseId() == event.getId());
+            case INSTRUCTOR -> event.getId() == instructor.getId();
+            default -> false;
+        };
+    }
+
     private void openChangePasswordDialog() {
         RoundedPasswordField currentField = createPasswordField();
         RoundedPasswordField newField = createPasswordField();
@@ -578,7 +670,7 @@ public class InstructorDashboard extends JFrame {
             return;
         }
 
-        boolean changed = AuthService.changePassword(user.getUsername(), current, next);
+        boolean changed = AuthService.changePassword(user, current, next);
         if (!changed) {
             showMessage("Unable to change password. Verify your current password.", MessageType.ERROR);
             return;
@@ -1,7 +1,13 @@
 package ui;
 
+import model.Instructor;
+import model.Student;
 import model.User;
 import service.AuthService;
+import service.DashboardPrefetch;
+import service.ErpService;
+import service.LoginTimings;
+import service.SettingsStore;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -12,12 +18,18 @@ import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.imageio.ImageIO;
 
 public class LoginScreen extends JFrame {
     private RoundedTextField usernameField;
     private RoundedPasswordFieldWithEye passwordField;
     private JLabel changePasswordLabel;
+    private RoundedButton loginButton;
+    private JProgressBar loginProgress;
+    private JLabel loginStatusLabel;
+    private LoginTask loginTask;
     private boolean passwordVisible = false;
     private Image backgroundImage;
     private Image logoImage;
@@ -343,7 +355,7 @@ public class LoginScreen extends JFrame {
         gbc.fill = GridBagConstraints.NONE;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(0, 0, 20, 0);
-        RoundedButton loginButton = new RoundedButton("Login");
+        loginButton = new RoundedButton("Login");
         loginButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
         loginButton.setForeground(Color.WHITE);
         loginButton.setBackground(new Color(33, 150, 243));
@@ -355,6 +367,27 @@ public class LoginScreen extends JFrame {
         gbc.gridx = 0;
         gbc.gridy = 6;
         gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.anchor = GridBagConstraints.CENTER;
+        gbc.insets = new Insets(0, 0, 15, 0);
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 6));
+        progressPanel.setOpaque(false);
+        loginProgress = new JProgressBar();
+        loginProgress.setIndeterminate(true);
+        loginProgress.setVisible(false);
+        loginStatusLabel = new JLabel(" ");
+        loginStatusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        loginStatusLabel.setForeground(new Color(60, 60, 60));
+        loginStatusLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        progressPanel.add(loginProgress, BorderLayout.NORTH);
+        progressPanel.add(loginStatusLabel, BorderLayout.SOUTH);
+        container.add(progressPanel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 7;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.gridwidth = 2;
         gbc.weightx = 0;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(0, 0, 0, 0);
@@ -575,15 +608,149 @@ public class LoginScreen extends JFrame {
     }
 
     private void handleLogin() {
+        // While a login is in flight the button acts as Cancel
+        if (loginTask != null && !loginTask.isDone()) {
+            loginTask.cancel(true);
+            return;
+        }
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
-        User user = AuthService.login(username, password);
+        setLoginInProgress(true);
+        loginTask = new LoginTask(username, password);
+        loginTask.execute();
+    }
 
-        if (user != null) {
-            openDashboard(user);
-            dispose();
-        } else {
-            JOptionPane.showMessageDialog(this, "Invalid credentials!");
+    private void setLoginInProgress(boolean inProgress) {
+        usernameField.setEnabled(!inProgress);
+        passwordField.setEnabled(!inProgress);
+        loginButton.setText(inProgress ? "Cancel" : "Login");
+        loginProgress.setVisible(inProgress);
+        loginStatusLabel.setText(inProgress ? "Signing in..." : " ");
+        setCursor(inProgress ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    private static class LoginResult {
+        private User user;
+        private Object profile;
+        private Object prefetched;
+        private long authNanos;
+        private long profileNanos;
+        private long prefetchNanos;
+    }
+
+    // Credential check, profile lookup and dashboard prefetch run off the event thread; the
+    // dashboard is only built once its data is ready, so the login form stays responsive throughout.
+    private class LoginTask extends SwingWorker<LoginResult, String> {
+        private final String username;
+        private final String password;
+        private final long startNanos = System.nanoTime();
+
+        LoginTask(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        protected LoginResult doInBackground() throws InterruptedException {
+            LoginResult result = new LoginResult();
+            publish("Checking credentials...");
+            long start = System.nanoTime();
+            result.user = AuthService.login(username, password);
+            result.authNanos = System.nanoTime() - start;
+            if (result.user == null || isCancelled()) {
+                return result;
+            }
+
+            publish("Loading your profile...");
+            start = System.nanoTime();
+            String role = result.user.getRole().toLowerCase();
+            if (role.equals("student")) {
+                result.profile = ErpService.findStudentForUser(username);
+            } else if (role.equals("instructor")) {
+                result.profile = ErpService.findInstructorForUser(username);
+            }
+            result.profileNanos = System.nanoTime() - start;
+            if (isCancelled()) {
+                return result;
+            }
+
+            publish("Loading your dashboard...");
+            start = System.nanoTime();
+            SettingsStore.reload(); // settings may have changed in another instance since the last session
+            if (role.equals("student") && result.profile != null) {
+                result.prefetched = DashboardPrefetch.forStudent(((Student) result.profile).getId());
+            } else if (role.equals("instructor") && result.profile != null) {
+                result.prefetched = DashboardPrefetch.forInstructor(((Instructor) result.profile).getId());
+            } else if (role.equals("admin")) {
+                result.prefetched = DashboardPrefetch.forAdmin();
+            }
+            result.prefetchNanos = System.nanoTime() - start;
+            return result;
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            if (!isCancelled()) {
+                loginStatusLabel.setText(chunks.get(chunks.size() - 1));
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                setLoginInProgress(false);
+                loginStatusLabel.setText("Login cancelled.");
+                return;
+            }
+
+            LoginResult result;
+            try {
+                result = get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                setLoginInProgress(false);
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                JOptionPane.showMessageDialog(LoginScreen.this, "Login failed: " + cause.getMessage());
+                return;
+            }
+
+            if (result.user == null) {
+                setLoginInProgress(false);
+                JOptionPane.showMessageDialog(LoginScreen.this, "Invalid credentials!");
+                return;
+            }
+            String role = result.user.getRole().toLowerCase();
+            if (result.profile == null && (role.equals("student") || role.equals("instructor"))) {
+                setLoginInProgress(false);
+                JOptionPane.showMessageDialog(LoginScreen.this,
+                        (role.equals("student") ? "Student" : "Instructor")
+                                + " profile not found. Please contact administrator.");
+                return;
+            }
+
+            Integer profileId = null;
+            if (result.profile instanceof Student) {
+                profileId = ((Student) result.profile).getId();
+            } else if (result.profile instanceof Instructor) {
+                profileId = ((Instructor) result.profile).getId();
+            }
+            AuthService.startSession(result.user, profileId);
+
+            loginStatusLabel.setText("Opening dashboard...");
+            long dashboardStart = System.nanoTime();
+            JFrame dashboard = openDashboard(result.user, result.profile, result.prefetched);
+            if (dashboard == null) {
+                setLoginInProgress(false);
+                return;
+            }
+            dashboard.setVisible(true);
+            // Queued behind the dashboard's first layout and paint, so this marks when it accepts input
+            SwingUtilities.invokeLater(() -> {
+                long now = System.nanoTime();
+                LoginTimings.record(role, result.authNanos, result.profileNanos, result.prefetchNanos,
+                        now - dashboardStart, now - startNanos);
+                dispose();
+            });
         }
     }
 
@@ -632,17 +799,18 @@ public class LoginScreen extends JFrame {
         }
     }
 
-    private void openDashboard(User user) {
+    private JFrame openDashboard(User user, Object profile, Object prefetched) {
         String role = user.getRole().toLowerCase();
 
         if (role.equals("student")) {
-            new StudentDashboard(user).setVisible(true);
+            return new StudentDashboard(user, (Student) profile, (DashboardPrefetch.StudentData) prefetched);
         } else if (role.equals("instructor")) {
-            new InstructorDashboard(user).setVisible(true);
+            return new InstructorDashboard(user, (Instructor) profile, (DashboardPrefetch.InstructorData) prefetched);
         } else if (role.equals("admin")) {
-            new AdminDashboard(user).setVisible(true);
+            return new AdminDashboard(user, (DashboardPrefetch.AdminData) prefetched);
         } else {
             JOptionPane.showMessageDialog(null, "Unknown role: " + role);
+            return null;
         }
     }
 }
@@ -1,9 +1,12 @@
 package ui;
 
+import db.ChangeBus;
 import db.erpDB;
 import model.*;
 import service.AuthService;
+import service.DashboardPrefetch;
 import service.ErpService;
+import service.SettingsStore;
 import util.ThemeManager;
 
 import javax.imageio.ImageIO;
@@ -22,9 +25,12 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class StudentDashboard extends JFrame {
     private static final Color BG_LIGHT = new Color(240, 242, 245);
@@ -37,6 +43,8 @@ public class StudentDashboard extends JFrame {
 
     private final User user;
     private final erpDB erpDb;
+    private final SettingsStore.Listener settingsListener = this::onSettingChanged;
+    private final ChangeBus.Listener changeListener = this::onDataChanged;
     private Student student;
     private Image headerBackgroundImage;
 
@@ -46,6 +54,17 @@ public class StudentDashboard extends JFrame {
     private JTable registrationsTable;
     private JTable timetableTable;
     private JTable gradesTable;
+    // Same order as getCatalogRows, ORDER BY c.code, s.name
+    private static final Comparator<CatalogRow> CATALOG_ORDER =
+            Comparator.comparing(CatalogRow::getCourseCode).thenComparing(CatalogRow::getSectionName);
+
+    private final EntityTableModel<CatalogRow> catalog = new EntityTableModel<>(
+            new String[]{"Course Code", "Title", "Credits", "Section", "Instructor", "Capacity", "Available", "Register"},
+            CatalogRow::getSectionId, StudentDashboard::catalogValues, 7);
+    // The transcript: shared by registrations, timetable and grades
+    private final EntityTableModel<TranscriptEntry> registrations = new EntityTableModel<>(
+            new String[]{"Course Code", "Title", "Credits", "Section", "Instructor", "Room", "Timetable", "Drop"},
+            TranscriptEntry::getEnrollmentId, StudentDashboard::registrationValues, 7);
     private RoundedToggleButton darkModeToggle;
 
     private CardLayout contentLayout;
@@ -53,30 +72,18 @@ public class StudentDashboard extends JFrame {
     private final Map<String, NavigationButton> navButtons = new LinkedHashMap<>();
 
     public StudentDashboard(User user) {
-        this.user = user;
-        this.erpDb = new erpDB();
-        String username = user.getUsername();
+        this(user, ErpService.findStudentForUser(user.getUsername()));
+    }
 
-        // Try multiple lookup strategies
-        this.student = ErpService.getStudentByEmail(username);
+    public StudentDashboard(User user, Student student) {
+        this(user, student, null);
+    }
 
-        if (this.student == null) {
-            // Try to find student by matching username with email prefix or name
-            List<Student> allStudents = erpDb.getAllStudents();
-            for (Student s : allStudents) {
-                String email = s.getEmail() != null ? s.getEmail().toLowerCase() : "";
-                String name = s.getName() != null ? s.getName().toLowerCase() : "";
-                String usernameLower = username.toLowerCase();
-
-                // Check if username matches email exactly, email prefix, or name
-                if (email.equals(usernameLower) ||
-                        email.startsWith(usernameLower + "@") ||
-                        name.equals(usernameLower)) {
-                    this.student = s;
-                    break;
-                }
-            }
-        }
+    // Used by the login pipeline, which resolves the profile and prefetches the tables off the event thread
+    public StudentDashboard(User user, Student student, DashboardPrefetch.StudentData prefetched) {
+        this.user = user;
+        this.erpDb = erpDB.getInstance();
+        this.student = student;
 
         if (this.student == null) {
             JOptionPane.showMessageDialog(null, "Student profile not found. Please contact administrator.");
@@ -88,8 +95,32 @@ public class StudentDashboard extends JFrame {
         ThemeManager.loadDarkModePreference();
         loadHeaderBackground();
         initUI();
-        refreshAllData();
+        if (prefetched != null) {
+            showPrefetched(prefetched);
+        } else {
+            refreshAllData();
+        }
         applyTheme();
+        SettingsStore.addListener(settingsListener);
+        ChangeBus.subscribe(changeListener);
+    }
+
+    @Override
+    public void dispose() {
+        SettingsStore.removeListener(settingsListener);
+        ChangeBus.unsubscribe(changeListener);
+        super.dispose();
+    }
+
+    // Called on the thread that changed the setting
+    private void onSettingChanged(String key, String oldValue, String newValue, SettingsStore.Snapshot snapshot) {
+        if (!SettingsStore.MAINTENANCE_MODE.equals(key)) {
+            return;
+        }
+        boolean maintenance = snapshot.isMaintenanceMode();
+        SwingUtilities.invokeLater(() -> showMessage(maintenance
+                ? "The portal is now in maintenance mode. Registration is paused."
+                : "Maintenance is over. Registration is open again.", MessageType.INFO));
     }
 
     private void loadHeaderBackground() {
@@ -204,6 +235,7 @@ public class StudentDashboard extends JFrame {
 
         JButton logoutBtn = createButton("Logout", new Color(220, 53, 69));
         logoutBtn.addActionListener(e -> {
+            AuthService.logout(user);
             dispose();
             new LoginScreen().setVisible(true);
         });
@@ -339,13 +371,7 @@ public class StudentDashboard extends JFrame {
     }
 
     private JPanel createCatalogPanel() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Course Code", "Title", "Credits", "Section", "Instructor", "Capacity", "Available", "Register"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
-        catalogTable = new JTable(model);
+        catalogTable = new JTable(catalog);
         styleTable(catalogTable);
         catalogTable.setRowHeight(34);
         attachButtonColumn(catalogTable, 7, "Register", this::handleRegisterAction);
@@ -358,19 +384,13 @@ public class StudentDashboard extends JFrame {
     }
 
     private JPanel createRegistrationsPanel() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Course Code", "Title", "Credits", "Section", "Instructor", "Room", "Timetable", "Drop"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
-        registrationsTable = new JTable(model);
+        registrationsTable = new JTable(registrations);
         styleTable(registrationsTable);
         registrationsTable.setRowHeight(34);
         attachButtonColumn(registrationsTable, 7, "Drop", this::handleDropAction);
 
         JButton refreshBtn = createButton("Refresh");
-        refreshBtn.addActionListener(e -> loadRegistrations());
+        refreshBtn.addActionListener(e -> refreshTranscript());
 
         JPanel actions = createActionBar(refreshBtn);
         return buildModulePanel(actions, registrationsTable);
@@ -383,7 +403,7 @@ public class StudentDashboard extends JFrame {
         timetableTable.setRowHeight(34);
 
         JButton refreshBtn = createButton("Refresh");
-        refreshBtn.addActionListener(e -> loadTimetable());
+        refreshBtn.addActionListener(e -> refreshTranscript());
 
         JPanel actions = createActionBar(refreshBtn);
         return buildModulePanel(actions, timetableTable);
@@ -404,7 +424,7 @@ public class StudentDashboard extends JFrame {
         downloadPDFBtn.addActionListener(e -> downloadTranscriptPDF());
 
         JButton refreshBtn = createButton("Refresh");
-        refreshBtn.addActionListener(e -> loadGrades());
+        refreshBtn.addActionListener(e -> refreshTranscript());
 
         JPanel actions = createActionBar(refreshBtn, downloadCSVBtn, downloadPDFBtn);
         return buildModulePanel(actions, gradesTable);
@@ -416,71 +436,54 @@ public class StudentDashboard extends JFrame {
             return;
         }
 
-        List<Section> sections = (List<Section>) catalogTable.getClientProperty("sections");
-        if (sections == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = catalogTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= sections.size()) {
-            return;
+        CatalogRow row = catalog.getRow(catalogTable.convertRowIndexToModel(viewRow));
+        if (row != null) {
+            registerForSection(row.toSection());
         }
-        Section section = sections.get(modelRow);
-        registerForSection(section);
     }
 
     private void handleDropAction(int viewRow) {
-        List<Enrollment> enrollments = (List<Enrollment>) registrationsTable.getClientProperty("enrollments");
-        if (enrollments == null || viewRow < 0) {
+        if (viewRow < 0) {
             return;
         }
-        int modelRow = registrationsTable.convertRowIndexToModel(viewRow);
-        if (modelRow < 0 || modelRow >= enrollments.size()) {
-            return;
+        TranscriptEntry entry = registrations.getRow(registrationsTable.convertRowIndexToModel(viewRow));
+        if (entry != null) {
+            dropSection(entry);
         }
-        Enrollment enrollment = enrollments.get(modelRow);
-        dropSection(enrollment);
     }
 
     private void registerForSection(Section section) {
-        // Check if already enrolled
-        List<Enrollment> currentEnrollments = erpDb.getEnrollmentsByStudent(student.getId());
-        for (Enrollment e : currentEnrollments) {
-            if (e.getSectionId() == section.getId()) {
-                showMessage("You are already registered for this section.", MessageType.INFO);
-                return;
-            }
-        }
-
-        // Check capacity
-        int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-        if (enrolled >= section.getCapacity()) {
-            showMessage("This section is full. No seats available.", MessageType.ERROR);
+        if (!confirmAction("Register for " + getCourseCode(section.getCourseId()) + " - " + section.getName() + "?")) {
             return;
         }
 
-        if (confirmAction("Register for " + getCourseCode(section.getCourseId()) + " - " + section.getName() + "?")) {
-            if (erpDb.createEnrollment(student.getId(), section.getId())) {
-                showMessage("Successfully registered for section.", MessageType.SUCCESS);
-                loadCatalog();
-                loadRegistrations();
-                refreshHomeStats();
-            } else {
-                showMessage("Unable to register. Please try again.", MessageType.ERROR);
-            }
+        // Duplicate and capacity checks happen atomically with the insert
+        RegistrationOutcome outcome = erpDb.registerStudentForSection(student.getId(), section.getId());
+        if (outcome == RegistrationOutcome.REGISTERED) {
+            // The enrollment event patches the catalog row and adds the registration
+            showMessage("Successfully registered for section.", MessageType.SUCCESS);
+        } else if (outcome == RegistrationOutcome.ALREADY_REGISTERED) {
+            showMessage("You are already registered for this section.", MessageType.INFO);
+        } else if (outcome == RegistrationOutcome.SECTION_FULL) {
+            showMessage("This section is full. No seats available.", MessageType.ERROR);
+            patchCatalogRow(section.getId());
+        } else if (outcome == RegistrationOutcome.SECTION_NOT_FOUND) {
+            showMessage("This section is no longer offered.", MessageType.ERROR);
+            patchCatalogRow(section.getId());
+        } else {
+            showMessage("Unable to register. Please try again.", MessageType.ERROR);
         }
     }
 
-    private void dropSection(Enrollment enrollment) {
-        Section section = erpDb.getSectionById(enrollment.getSectionId());
-        Course course = section != null ? erpDb.getCourseById(section.getCourseId()) : null;
-        String courseName = course != null ? course.getCode() + " - " + section.getName() : "this section";
+    private void dropSection(TranscriptEntry entry) {
+        String courseName = entry.hasCourse() ? entry.getCourseCode() + " - " + entry.getSectionName() : "this section";
 
         if (confirmAction("Drop " + courseName + "?")) {
-            if (erpDb.deleteEnrollment(enrollment.getId())) {
+            if (erpDb.deleteEnrollment(entry.getEnrollmentId())) {
                 showMessage("Successfully dropped section.", MessageType.SUCCESS);
-                loadRegistrations();
-                loadTimetable();
-                refreshHomeStats();
             } else {
                 showMessage("Unable to drop section. Please try again.", MessageType.ERROR);
             }
@@ -493,96 +496,70 @@ public class StudentDashboard extends JFrame {
     }
 
     private void loadCatalog() {
-        DefaultTableModel model = (DefaultTableModel) catalogTable.getModel();
-        model.setRowCount(0);
-        List<Section> allSections = new ArrayList<>();
-        List<Course> courses = erpDb.getAllCourses();
-
-        for (Course course : courses) {
-            List<Section> sections = erpDb.getSectionsByCourse(course.getId());
-            for (Section section : sections) {
-                allSections.add(section);
-            }
-        }
-
-        catalogTable.putClientProperty("sections", allSections);
-
-        for (Section section : allSections) {
-            Course course = erpDb.getCourseById(section.getCourseId());
-            Instructor instructor = section.getInstructorId() != null
-                    ? erpDb.getInstructorById(section.getInstructorId())
-                    : null;
-            int enrolled = erpDb.getEnrollmentCountForSection(section.getId());
-            int available = section.getCapacity() - enrolled;
+        showCatalog(erpDb.getCatalogRows());
+    }
 
-            model.addRow(new Object[]{
-                    course != null ? course.getCode() : "?",
-                    course != null ? course.getTitle() : "?",
-                    course != null ? course.getCredits() : 0,
-                    section.getName(),
-                    instructor != null ? instructor.getName() : "Unassigned",
-                    section.getCapacity(),
-                    available,
-                    "Register"
-            });
-        }
+    private void showCatalog(List<CatalogRow> rows) {
+        catalog.setRows(rows);
     }
 
-    private void loadRegistrations() {
-        DefaultTableModel model = (DefaultTableModel) registrationsTable.getModel();
-        model.setRowCount(0);
-        List<Enrollment> enrollments = erpDb.getEnrollmentsByStudent(student.getId());
-        registrationsTable.putClientProperty("enrollments", enrollments);
+    private static Object[] catalogValues(CatalogRow row) {
+        return new Object[]{
+                row.getCourseCode(),
+                row.getCourseTitle(),
+                row.getCredits(),
+                row.getSectionName(),
+                row.getInstructorName() != null ? row.getInstructorName() : "Unassigned",
+                row.getCapacity(),
+                row.getSeatsRemaining(),
+                "Register"
+        };
+    }
 
-        for (Enrollment enrollment : enrollments) {
-            Section section = erpDb.getSectionById(enrollment.getSectionId());
-            if (section == null) continue;
+    // Fetch the student's enrollments once and render every tab that depends on them
+    private void refreshTranscript() {
+        showTranscript(erpDb.getTranscriptSnapshot(student.getId()));
+    }
 
-            Course course = erpDb.getCourseById(section.getCourseId());
-            Instructor instructor = section.getInstructorId() != null
-                    ? erpDb.getInstructorById(section.getInstructorId())
-                    : null;
+    private void showTranscript(List<TranscriptEntry> entries) {
+        registrations.setRows(entries);
+        loadTimetable();
+        loadGrades();
+    }
 
-            model.addRow(new Object[]{
-                    course != null ? course.getCode() : "?",
-                    course != null ? course.getTitle() : "?",
-                    course != null ? course.getCredits() : 0,
-                    section.getName(),
-                    instructor != null ? instructor.getName() : "Unassigned",
-                    section.getRoom() != null ? section.getRoom() : "-",
-                    section.getTimetable() != null ? section.getTimetable() : "-",
-                    "Drop"
-            });
-        }
+    private static Object[] registrationValues(TranscriptEntry entry) {
+        return new Object[]{
+                entry.hasCourse() ? entry.getCourseCode() : "?",
+                entry.hasCourse() ? entry.getCourseTitle() : "?",
+                entry.hasCourse() ? entry.getCredits() : 0,
+                entry.getSectionName(),
+                entry.getInstructorName() != null ? entry.getInstructorName() : "Unassigned",
+                entry.getRoom() != null ? entry.getRoom() : "-",
+                entry.getTimetable() != null ? entry.getTimetable() : "-",
+                "Drop"
+        };
     }
 
     private void loadTimetable() {
         DefaultTableModel model = (DefaultTableModel) timetableTable.getModel();
         model.setRowCount(0);
-        List<Enrollment> enrollments = erpDb.getEnrollmentsByStudent(student.getId());
 
-        for (Enrollment enrollment : enrollments) {
-            Section section = erpDb.getSectionById(enrollment.getSectionId());
-            if (section == null || section.getTimetable() == null || section.getTimetable().isEmpty()) {
+        for (TranscriptEntry entry : registrations.getRows()) {
+            if (entry.getTimetable() == null || entry.getTimetable().isEmpty()) {
                 continue;
             }
 
-            Course course = erpDb.getCourseById(section.getCourseId());
-            Instructor instructor = section.getInstructorId() != null
-                    ? erpDb.getInstructorById(section.getInstructorId())
-                    : null;
-
             // Parse timetable (assuming format like "Mon 10:00-11:00, Wed 14:00-15:00")
-            String[] timeSlots = section.getTimetable().split(",");
+            String[] timeSlots = entry.getTimetable().split(",");
             for (String slot : timeSlots) {
                 String trimmed = slot.trim();
                 model.addRow(new Object[]{
                         trimmed,
-                        course != null ? course.getCode() : "?",
-                        course != null ? course.getTitle() : "?",
-                        section.getName(),
-                        section.getRoom() != null ? section.getRoom() : "-",
-                        instructor != null ? instructor.getName() : "Unassigned"
+                        entry.hasCourse() ? entry.getCourseCode() : "?",
+                        entry.hasCourse() ? entry.getCourseTitle() : "?",
+                        entry.getSectionName(),
+                        entry.getRoom() != null ? entry.getRoom() : "-",
+                        entry.getInstructorName() != null ? entry.getInstructorName() : "Unassigned"
                 });
             }
         }
@@ -591,19 +568,12 @@ public class StudentDashboard extends JFrame {
     private void loadGrades() {
         DefaultTableModel model = (DefaultTableModel) gradesTable.getModel();
         model.setRowCount(0);
-        List<Enrollment> enrollments = erpDb.getEnrollmentsByStudent(student.getId());
 
         float totalSGPA = 0;
         int coursesWithGrades = 0;
 
-        for (Enrollment enrollment : enrollments) {
-            Section section = erpDb.getSectionById(enrollment.getSectionId());
-            if (section == null) continue;
-
-            Course course = erpDb.getCourseById(section.getCourseId());
-            Grade grade = enrollment.getGradeId() != null
-                    ? erpDb.getGradeById(enrollment.getGradeId())
-                    : null;
+        for (TranscriptEntry entry : registrations.getRows()) {
+            Grade grade = entry.getGrade();
 
             String sgpaText = "-";
             String letterGrade = "-";
@@ -616,10 +586,10 @@ public class StudentDashboard extends JFrame {
             }
 
             model.addRow(new Object[]{
-                    course != null ? course.getCode() : "?",
-                    course != null ? course.getTitle() : "?",
-                    course != null ? course.getCredits() : 0,
-                    section.getName(),
+                    entry.hasCourse() ? entry.getCourseCode() : "?",
+                    entry.hasCourse() ? entry.getCourseTitle() : "?",
+                    entry.hasCourse() ? entry.getCredits() : 0,
+                    entry.getSectionName(),
                     sgpaText,
                     letterGrade
             });
@@ -648,13 +618,16 @@ public class StudentDashboard extends JFrame {
     private JLabel avgSGPALabel; // Store reference to average SGPA label
 
     private void refreshHomeStats() {
-        int courseCount = erpDb.getRegisteredCourseCount(student.getId());
-        int totalCredits = erpDb.getTotalCreditsForStudent(student.getId());
+        showHomeStats(erpDb.getRegisteredCourseCount(student.getId()),
+                erpDb.getTotalCreditsForStudent(student.getId()),
+                erpDb.getAverageSGPAForStudent(student.getId()));
+    }
+
+    private void showHomeStats(int courseCount, int totalCredits, Float avgSGPA) {
         coursesCountLabel.setText(String.valueOf(courseCount));
         creditsCountLabel.setText(String.valueOf(totalCredits));
-        
+
         // Update average SGPA
-        Float avgSGPA = erpDb.getAverageSGPAForStudent(student.getId());
         if (avgSGPALabel == null) {
             avgSGPALabel = (JLabel) contentPanel.getClientProperty("avgSGPALabel");
         }
@@ -669,15 +642,133 @@ public class StudentDashboard extends JFrame {
 
     private void refreshAllData() {
         loadCatalog();
-        loadRegistrations();
+        refreshTranscript();
+        refreshHomeStats();
+    }
+
+    // Same figures as refreshHomeStats, worked out from the transcript already in memory
+    private void showHomeStatsFromTranscript() {
+        Set<Integer> courses = new HashSet<>();
+        int totalCredits = 0;
+        float totalSGPA = 0;
+        int coursesWithGrades = 0;
+        for (TranscriptEntry entry : registrations.getRows()) {
+            courses.add(entry.getCourseId());
+            if (entry.hasCourse()) {
+                totalCredits += entry.getCredits();
+            }
+            Grade grade = entry.getGrade();
+            if (grade != null && grade.getSGPA() != null) {
+                totalSGPA += grade.getSGPA();
+                coursesWithGrades++;
+            }
+        }
+        showHomeStats(courses.size(), totalCredits, coursesWithGrades > 0 ? totalSGPA / coursesWithGrades : null);
+    }
+
+    // Called on the writing thread
+    private void onDataChanged(ChangeEvent event) {
+        SwingUtilities.invokeLater(() -> applyChange(event));
+    }
+
+    // Touches only what the event affects: the catalog row of the section and, for this student's own
+    // enrollments, one registrations row. Timetable, grades and the home cards are redrawn from memory.
+    private void applyChange(ChangeEvent event) {
+        if (!isDisplayable()) {
+            return;
+        }
+        if (event.isBulk()) {
+            if (event.getEntity() != ChangeEvent.Entity.STUDENT && event.getEntity() != ChangeEvent.Entity.INSTRUCTOR) {
+                refreshAllData();
+            }
+            return;
+        }
+        switch (event.getEntity()) {
+            case ENROLLMENT -> applyEnrollmentChange(event);
+            case SECTION -> {
+                patchCatalogRow(event.getId());
+                if (isEnrolledInSection(event.getId())) {
+                    refreshTranscript();
+                    showHomeStatsFromTranscript();
+                }
+            }
+            case COURSE -> {
+                List<Integer> sectionIds = new ArrayList<>();
+                for (CatalogRow row : catalog.getRows()) {
+                    if (row.getCourseId() == event.getId()) {
+                        sectionIds.add(row.getSectionId());
+                    }
+                }
+                sectionIds.forEach(this::patchCatalogRow);
+                if (registrations.getRows().stream().anyMatch(entry -> entry.getCourseId() == event.getId())) {
+                    refreshTranscript();
+                    showHomeStatsFromTranscript();
+                }
+            }
+            case INSTRUCTOR -> {
+                List<Integer> sectionIds = new ArrayList<>();
+                for (CatalogRow row : catalog.getRows()) {
+                    if (row.getInstructorId() != null && row.getInstructorId() == event.getId()) {
+                        sectionIds.add(row.getSectionId());
+                    }
+                }
+                sectionIds.forEach(this::patchCatalogRow);
+                if (sectionIds.stream().anyMatch(this::isEnrolledInSection)) {
+                    refreshTranscript();
+                }
+            }
+            default -> {
+                // Other students' profiles don't show up here
+            }
+        }
+    }
+
+    private void applyEnrollmentChange(ChangeEvent event) {
+        if (event.getSectionId() != 0) {
+            patchCatalogRow(event.getSectionId());
+        }
+        boolean mine = registrations.indexOf(event.getId()) >= 0;
+        if (event.getOperation() == ChangeEvent.Operation.DELETED) {
+            if (!mine) {
+                return;
+            }
+            registrations.remove(event.getId());
+        } else if (mine || event.getStudentId() == student.getId()) {
+            TranscriptEntry entry = erpDb.getTranscriptEntry(event.getId());
+            if (entry == null) {
+                return;
+            }
+            registrations.put(entry, null); // a new enrollment has the highest id, so it goes last
+        } else {
+            return;
+        }
         loadTimetable();
         loadGrades();
-        refreshHomeStats();
+        showHomeStatsFromTranscript();
+    }
+
+    // Re-reads one section's catalog row and updates, moves, inserts or removes it
+    private void patchCatalogRow(int sectionId) {
+        CatalogRow row = erpDb.getCatalogRow(sectionId);
+        if (row != null) {
+            catalog.put(row, CATALOG_ORDER);
+        } else {
+            catalog.remove(sectionId);
+        }
+    }
+
+    private boolean isEnrolledInSection(int sectionId) {
+        return registrations.getRows().stream().anyMatch(entry -> entry.getSectionId() == sectionId);
+    }
+
+    private void showPrefetched(DashboardPrefetch.StudentData data) {
+        showCatalog(data.getCatalog());
+        showTranscript(data.getTranscript());
+        showHomeStats(data.getCourseCount(), data.getTotalCredits(), data.getAverageSGPA());
     }
 
     private boolean isMaintenanceEnabled() {
-        Settings setting = erpDb.getSetting("maintenance_mode");
-        return setting != null && "ON".equalsIgnoreCase(setting.getValue());
+        return SettingsStore.isMaintenanceMode();
     }
 
     private void downloadTranscriptCSV() {
@@ -690,15 +781,8 @@ public class StudentDashboard extends JFrame {
             try (FileWriter writer = new FileWriter(file)) {
                 writer.write("Course Code,Title,Credits,Section,SGPA,Letter Grade\n");
 
-                List<Enrollment> enrollments = erpDb.getEnrollmentsByStudent(student.getId());
-                for (Enrollment enrollment : enrollments) {
-                    Section section = erpDb.getSectionById(enrollment.getSectionId());
-                    if (section == null) continue;
-
-                    Course course = erpDb.getCourseById(section.getCourseId());
-                    Grade grade = enrollment.getGradeId() != null
-                            ? erpDb.getGradeById(enrollment.getGradeId())
-                            : null;
+                for (TranscriptEntry entry : erpDb.getTranscriptSnapshot(student.getId())) {
+                    Grade grade = entry.getGrade();
 
                     String sgpaText = "-";
                     String letterGrade = "-";
@@ -708,10 +792,10 @@ public class StudentDashboard extends JFrame {
                     }
                     
                     writer.write(String.format("%s,%s,%d,%s,%s,%s\n",
-                            course != null ? course.getCode() : "?",
-                            course != null ? course.getTitle() : "?",
-                            course != null ? course.getCredits() : 0,
-                            section.getName(),
+                            entry.hasCourse() ? entry.getCourseCode() : "?",
+                            entry.hasCourse() ? entry.getCourseTitle() : "?",
+                            entry.hasCourse() ? entry.getCredits() : 0,
+                            entry.getSectionName(),
                             sgpaText,
                             letterGrade
                     ));
@@ -763,7 +847,7 @@ public class StudentDashboard extends JFrame {
             return;
         }
 
-        boolean changed = AuthService.changePassword(user.getUsername(), current, next);
+        boolean changed = AuthService.changePassword(user, current, next);
         if (!changed) {
             showMessage("Unable to change password. Verify your current password.", MessageType.ERROR);
             return;
@@ -0,0 +1,163 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs password hashing on a dedicated, bounded pool so a burst of logins cannot take over the UI or
+// database threads. When the queue is full callers are turned away instead of piling up behind it.
+// Pool size and queue depth come from erp.password.threads and erp.password.queue. Bulk imports hash on
+// a separate, smaller pool (erp.password.batchThreads) and wait for it, so they never fill the queue
+// that logins and password changes depend on.
+public class PasswordHasher {
+
+    private static final int THREADS = Integer.getInteger("erp.password.threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_CAPACITY = Integer.getInteger("erp.password.queue", 64);
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            r -> {
+                Thread t = new Thread(r, "password-hasher-" + THREAD_IDS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private static final int BATCH_THREADS = Integer.getInteger("erp.password.batchThreads", Math.max(1, THREADS / 2));
+    private static final ThreadPoolExecutor BATCH_EXECUTOR = new ThreadPoolExecutor(
+            BATCH_THREADS, BATCH_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "password-batch-" + THREAD_IDS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong rejected = new AtomicLong();
+    private static final AtomicLong totalQueueNanos = new AtomicLong();
+    private static final AtomicLong totalHashNanos = new AtomicLong();
+    private static final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public static String hash(String password) {
+        return await(submit(EXECUTOR, () -> PasswordUtils.hashPassword(password)));
+    }
+
+    public static boolean verify(String password, String storedHash) {
+        return await(submit(EXECUTOR, () -> PasswordUtils.verifyPassword(password, storedHash)));
+    }
+
+    // Hashes a batch in parallel on the batch pool, keeping at most two tasks per thread in flight
+    public static List<String> hashAll(List<String> passwords) {
+        List<Future<String>> pending = new ArrayList<>();
+        List<String> hashes = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            if (pending.size() >= BATCH_THREADS * 2) {
+                hashes.add(await(pending.remove(0)));
+            }
+            pending.add(submit(BATCH_EXECUTOR, () -> PasswordUtils.hashPassword(password)));
+        }
+        for (Future<String> future : pending) {
+            hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    public static HashingStats getStats() {
+        long done = completed.get();
+        return new HashingStats(THREADS, QUEUE_CAPACITY, EXECUTOR.getActiveCount(), EXECUTOR.getQueue().size(),
+                done, rejected.get(),
+                done == 0 ? 0 : totalQueueNanos.get() / done,
+                done == 0 ? 0 : totalHashNanos.get() / done,
+                maxLatencyNanos.get());
+    }
+
+    private static <T> Future<T> submit(ThreadPoolExecutor executor, Callable<T> task) {
+        long submitted = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long finished = System.nanoTime();
+                    completed.incrementAndGet();
+                    totalQueueNanos.addAndGet(started - submitted);
+                    totalHashNanos.addAndGet(finished - started);
+                    maxLatencyNanos.accumulateAndGet(finished - submitted, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new IllegalStateException("Password hashing is saturated (" + QUEUE_CAPACITY
+                    + " requests queued); try again shortly", e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public static class HashingStats {
+        private final int threads;
+        private final int queueCapacity;
+        private final int active;
+        private final int queued;
+        private final long completed;
+        private final long rejected;
+        private final long avgQueueNanos;
+        private final long avgHashNanos;
+        private final long maxLatencyNanos;
+
+        HashingStats(int threads, int queueCapacity, int active, int queued, long completed, long rejected,
+                     long avgQueueNanos, long avgHashNanos, long maxLatencyNanos) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.active = active;
+            this.queued = queued;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.avgQueueNanos = avgQueueNanos;
+            this.avgHashNanos = avgHashNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public int getThreads() { return threads; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public int getActive() { return active; }
+        public int getQueued() { return queued; }
+        public long getCompleted() { return completed; }
+        public long getRejected() { return rejected; }
+        public long getAvgQueueNanos() { return avgQueueNanos; }
+        public long getAvgHashNanos() { return avgHashNanos; }
+        public long getMaxLatencyNanos() { return maxLatencyNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%s x%d: threads=%d active=%d queued=%d/%d completed=%d rejected=%d"
+                            + " avgQueue=%.2fms avgHash=%.2fms maxLatency=%.2fms",
+                    PasswordUtils.KDF, PasswordUtils.ITERATIONS, threads, active, queued, queueCapacity,
+                    completed, rejected, avgQueueNanos / 1e6, avgHashNanos / 1e6, maxLatencyNanos / 1e6);
+        }
+    }
+}
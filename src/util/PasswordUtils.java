@@ -1,17 +1,88 @@
 package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// Password key derivation. New hashes are stored as kdf$iterations$salt$hash, where kdf and cost
+// come from erp.password.kdf (PBKDF2WithHmacSHA256 or PBKDF2WithHmacSHA512) and erp.password.iterations.
+// Unsalted SHA-256 hex digests from older databases still verify and are flagged for rehashing.
 public class PasswordUtils {
+
+    public static final String KDF = System.getProperty("erp.password.kdf", "PBKDF2WithHmacSHA256");
+    public static final int ITERATIONS = Integer.getInteger("erp.password.iterations", 120_000);
+
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public static String hashPassword(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] key = derive(KDF, password, salt, ITERATIONS);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return KDF + "$" + ITERATIONS + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(key);
+    }
+
+    public static boolean verifyPassword(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        if (isLegacy(storedHash)) {
+            return MessageDigest.isEqual(
+                    legacySha256(password).getBytes(StandardCharsets.US_ASCII),
+                    storedHash.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder b64 = Base64.getDecoder();
+            byte[] expected = b64.decode(parts[3]);
+            byte[] actual = derive(parts[0], password, b64.decode(parts[2]), Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Malformed hash or an algorithm this JVM doesn't provide
+            return false;
+        }
+    }
+
+    // True when the stored hash was made with an older scheme or a different algorithm or cost than configured
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null || isLegacy(storedHash)) {
+            return true;
+        }
+        String[] parts = storedHash.split("\\$");
+        return parts.length != 4 || !parts[0].equals(KDF) || !parts[1].equals(String.valueOf(ITERATIONS));
+    }
+
+    private static boolean isLegacy(String storedHash) {
+        return storedHash.length() == 64 && storedHash.indexOf('$') < 0;
+    }
+
+    private static String legacySha256(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(password.getBytes("UTF-8"));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            return HexFormat.of().formatHex(md.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] derive(String kdf, String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(kdf).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unsupported password KDF " + kdf, e);
+        } finally {
+            spec.clearPassword();
         }
     }
 }